@@ -1,25 +1,88 @@
 package arena;
 
+import java.util.List;
+import java.util.Locale;
 import java.util.Random;
 
+import characters.Character;
+
 public abstract class Arena {
-    final int ROWS = 40;
-    final int COLS = 40;
+    // Size of the story arenas; each arena carries its own size
+    public static final int DEFAULT_ROWS = 40;
+    public static final int DEFAULT_COLS = 40;
+
+    protected final int ROWS;
+    protected final int COLS;
 
-    protected char[][] grid = new char[ROWS][COLS];
+    protected char[][] grid;
     // baseGrid stores the immutable underlying tiles (walls, speed ramps) defined
     // at design time
-    protected char[][] baseGrid = new char[ROWS][COLS];
-    protected Random rand = new Random();
-    protected int[][] trailTimer = new int[ROWS][COLS];
+    protected char[][] baseGrid;
+    // Preallocated second buffer for the per-tick pre-commit view of the grid
+    protected char[][] readGrid;
+    // Bit planes of readGrid for AI search; the solid plane is valid from construction
+    protected GridBits bits;
+    // Layout randomness (RandomArena); seeded from the match seed when given
+    protected Random rand;
+    protected int[][] trailTimer;
+    // Cells whose tile changed since the renderer last painted them
+    protected DirtyCells dirtyCells;
+    // Which light cycle stands on each cell
+    protected OccupancyGrid occupancy;
+    // Per-tick snapshots handed from the game thread to the renderer
+    protected SnapshotExchange snapshots;
+    // Cells (r * COLS + c) a cycle may spawn on; designArena may fill it in,
+    // otherwise it is derived from the layout once
+    protected int[] spawnCells;
 
     public Arena() {
-        generateEmptyGrid();
-        designArena();
+        this(DEFAULT_ROWS, DEFAULT_COLS, new Random());
+    }
+
+    public Arena(long seed) {
+        this(DEFAULT_ROWS, DEFAULT_COLS, new Random(seed));
+    }
+
+    public Arena(int rows, int cols, long seed) {
+        this(rows, cols, new Random(seed), null);
+    }
+
+    // Layout copied from a parsed map file; designArena() is not called
+    protected Arena(ArenaTemplate template) {
+        this(template.getRows(), template.getCols(), new Random(), template);
+    }
+
+    private Arena(int rows, int cols, Random rand) {
+        this(rows, cols, rand, null);
+    }
+
+    private Arena(int rows, int cols, Random rand, ArenaTemplate template) {
+        if (rows < 3 || cols < 3)
+            throw new IllegalArgumentException("Arena must be at least 3x3, got " + rows + "x" + cols);
+        this.ROWS = rows;
+        this.COLS = cols;
+        this.grid = new char[rows][cols];
+        this.baseGrid = new char[rows][cols];
+        this.readGrid = new char[rows][cols];
+        this.bits = new GridBits(rows, cols);
+        this.trailTimer = new int[rows][cols];
+        this.dirtyCells = new DirtyCells(rows, cols);
+        this.occupancy = new OccupancyGrid(rows, cols);
+        this.snapshots = new SnapshotExchange(rows, cols);
+        this.rand = rand;
+        if (template != null) {
+            template.copyInto(grid);
+            spawnCells = template.getSpawnCells();
+        } else {
+            generateEmptyGrid();
+            designArena();
+        }
+        if (spawnCells == null)
+            spawnCells = ArenaGenerator.findSpawnCells(grid);
 
         for (int r = 0; r < ROWS; r++)
-            for (int c = 0; c < COLS; c++)
-                baseGrid[r][c] = grid[r][c];
+            System.arraycopy(grid[r], 0, baseGrid[r], 0, COLS);
+        bits.load(grid);
         initializeTrailTimer();
     }
 
@@ -41,21 +104,130 @@ public abstract class Arena {
 
     protected abstract void designArena();
 
+    /** Map id (data/arenas/{id}.txt) of the chapter's fixed layout, or null for a random arena. */
+    public static String mapIdForChapter(int chapter) {
+        return switch (chapter) {
+            case 1 -> "arena1";
+            case 2 -> "arena2";
+            case 3 -> "arena3";
+            default -> null;
+        };
+    }
+
+    /** The arena layout used by the given chapter (chapters 4+ are random). */
+    public static Arena forChapter(int chapter) {
+        String mapId = mapIdForChapter(chapter);
+        return (mapId != null) ? new MapArena(ArenaTemplate.get(mapId)) : new RandomArena();
+    }
+
+    /** Same as {@link #forChapter(int)} with the layout drawn from the match seed. */
+    public static Arena forChapter(int chapter, MatchSeed seed) {
+        String mapId = mapIdForChapter(chapter);
+        return (mapId != null) ? new MapArena(ArenaTemplate.get(mapId))
+                : new RandomArena(seed.streamSeed(MatchSeed.ARENA, 0));
+    }
+
+    /** A random arena of any size, for benchmarking how the engine scales with the grid. */
+    public static Arena stress(int rows, int cols, MatchSeed seed) {
+        return new RandomArena(rows, cols, seed.streamSeed(MatchSeed.ARENA, 0));
+    }
+
+    /** A generated arena in the given mode (default density), seeded from the match seed. */
+    public static Arena generated(int rows, int cols, ArenaGenerator.Mode mode, MatchSeed seed) {
+        ArenaGenerator generator = new ArenaGenerator(rows, cols).setMode(mode);
+        char[][] layout = generator.generate(seed.streamSeed(MatchSeed.ARENA, 0));
+        return new MapArena(ArenaTemplate.fromGrid(mode.name().toLowerCase(Locale.ROOT) + "-" + seed, layout));
+    }
+
     public char[][] getGrid() {
         return grid;
     }
 
+    public int getRows() {
+        return ROWS;
+    }
+
+    public int getCols() {
+        return COLS;
+    }
+
+    public boolean inBounds(int r, int c) {
+        return r >= 0 && r < ROWS && c >= 0 && c < COLS;
+    }
+
+    /**
+     * Empty floor cells (r * COLS + c) connected to the main area, off the
+     * border; picking one at random is an O(1) spawn. Shared, do not modify.
+     */
+    public int[] getSpawnCells() {
+        return spawnCells;
+    }
+
+    // Player start: mid-height, left of centre (20, 15 on the 40x40 arenas)
+    public int getPlayerStartRow() {
+        return ROWS / 2;
+    }
+
+    public int getPlayerStartCol() {
+        return COLS * 3 / 8;
+    }
+
     public int[][] getTrailTimer() {
         return trailTimer;
     }
 
+    /**
+     * Bulk-copies the live grid into the preallocated read buffer and returns
+     * it. Enemies decide against this consistent pre-commit view while the
+     * live grid is mutated; no arrays are allocated per call.
+     */
+    public char[][] snapshotGrid() {
+        for (int r = 0; r < ROWS; r++)
+            System.arraycopy(grid[r], 0, readGrid[r], 0, COLS);
+        return readGrid;
+    }
+
+    /**
+     * Rebuilds the bit planes from the read buffer filled by the last
+     * {@link #snapshotGrid()} and returns them.
+     */
+    public GridBits snapshotBits() {
+        bits.load(readGrid);
+        return bits;
+    }
+
+    /** Bit planes as of the last snapshot (walls and obstacles are always current). */
+    public GridBits getBits() {
+        return bits;
+    }
+
+    public DirtyCells getDirtyCells() {
+        return dirtyCells;
+    }
+
+    public OccupancyGrid getOccupancy() {
+        return occupancy;
+    }
+
+    public SnapshotExchange getSnapshots() {
+        return snapshots;
+    }
+
+    /**
+     * Publishes the current grid and cycles to the renderer. Call from the
+     * thread that mutates the arena, after a tick (or batch of ticks).
+     */
+    public void publishSnapshot(List<Character> cycles, long step) {
+        snapshots.publish(this, cycles, step);
+    }
+
     /**
      * Returns the base (design-time) tile at the given location. This is used
      * to restore speed ramps and other static tiles when dynamic overlays are
      * removed (e.g., trail decay, enemy death).
      */
     public char getBaseTile(int r, int c) {
-        if (r < 0 || r >= ROWS || c < 0 || c >= COLS)
+        if (!inBounds(r, c))
             return '.';
         return baseGrid[r][c];
     }
@@ -0,0 +1,319 @@
+package arena;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Seeded procedural arena layouts. Every layout gets an outer wall with one
+ * to three holes, obstacles laid out by the chosen mode, then speed ramps:
+ * <ul>
+ * <li>SCATTER: obstacles on random interior cells,</li>
+ * <li>SYMMETRIC: the same, mirrored into all four quadrants (holes too),</li>
+ * <li>MAZE: a Kruskal maze on odd cells, carved with union-find, with only a
+ * fraction of its leftover walls kept so cycles have room to turn.</li>
+ * </ul>
+ * The player's start cell and the two cells east of it are always left clear.
+ * A union-find pass over the open cells then fills every pocket cut off from
+ * the largest region, so the whole floor is always connected, and the same
+ * pass yields the list of valid spawn cells. When the start lane itself is
+ * such a pocket, a path to the largest region is carved first so it is kept.
+ *
+ * Density means the share of interior cells turned into obstacles for
+ * SCATTER/SYMMETRIC, and the share of maze walls kept for MAZE. An instance
+ * reuses its buffers across calls and is not thread-safe; the same seed and
+ * settings always give the same layout.
+ */
+public final class ArenaGenerator {
+
+    public enum Mode {
+        SCATTER, SYMMETRIC, MAZE
+    }
+
+    // Tuned so a 40x40 scatter arena matches the old 35 obstacles and 12 ramps
+    public static final double DEFAULT_OBSTACLE_DENSITY = 35.0 / (38 * 38);
+    public static final double DEFAULT_MAZE_DENSITY = 0.6;
+    public static final double DEFAULT_RAMP_DENSITY = 12.0 / (38 * 38);
+
+    private final int rows;
+    private final int cols;
+    private Mode mode = Mode.SCATTER;
+    private double density = Double.NaN; // NaN = the mode's default
+    private double rampDensity = DEFAULT_RAMP_DENSITY;
+
+    private final OpenRegions regions;
+    // Maze scratch: candidate walls between rooms, shuffled per layout
+    private int[] mazeWalls;
+    // Carving scratch: BFS queue and the cell each cell was reached from
+    private int[] carveQueue;
+    private int[] carveFrom;
+    private int[] spawnCells = new int[0];
+
+    public ArenaGenerator(int rows, int cols) {
+        if (rows < 5 || cols < 5)
+            throw new IllegalArgumentException("Generated arenas must be at least 5x5, got " + rows + "x" + cols);
+        this.rows = rows;
+        this.cols = cols;
+        this.regions = new OpenRegions(rows, cols);
+    }
+
+    public ArenaGenerator setMode(Mode mode) {
+        this.mode = mode;
+        return this;
+    }
+
+    public ArenaGenerator setDensity(double density) {
+        this.density = Math.max(0.0, Math.min(1.0, density));
+        return this;
+    }
+
+    public ArenaGenerator setRampDensity(double rampDensity) {
+        this.rampDensity = Math.max(0.0, Math.min(1.0, rampDensity));
+        return this;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /** A new layout for the seed. */
+    public char[][] generate(long seed) {
+        char[][] grid = new char[rows][cols];
+        generate(new Random(seed), grid);
+        return grid;
+    }
+
+    /** Lay out grid (rows x cols) from rand; {@link #getSpawnCells()} then lists its spawn cells. */
+    public void generate(Random rand, char[][] grid) {
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                boolean edge = r == 0 || c == 0 || r == rows - 1 || c == cols - 1;
+                grid[r][c] = edge ? '#' : '.';
+            }
+        }
+        punchHoles(rand, grid);
+
+        switch (mode) {
+            case SCATTER -> scatter(rand, grid, false);
+            case SYMMETRIC -> scatter(rand, grid, true);
+            case MAZE -> maze(rand, grid);
+        }
+        placeRamps(rand, grid);
+        // Same start cell as Arena#getPlayerStartRow/Col; the player sets off east
+        int startR = rows / 2;
+        int startC = cols * 3 / 8;
+        for (int c = startC; c <= startC + 2 && c < cols - 1; c++)
+            grid[startR][c] = '.';
+        connect(grid, startR * cols + startC);
+    }
+
+    /** Spawn cells of the last generated layout, as r * cols + c. */
+    public int[] getSpawnCells() {
+        return spawnCells;
+    }
+
+    /** Spawn cells for any grid: empty floor off the border, in the largest open region. */
+    public static int[] findSpawnCells(char[][] grid) {
+        OpenRegions regions = new OpenRegions(grid.length, grid[0].length);
+        regions.label(grid);
+        return regions.spawnCells(grid);
+    }
+
+    private double effectiveDensity() {
+        if (!Double.isNaN(density))
+            return density;
+        return (mode == Mode.MAZE) ? DEFAULT_MAZE_DENSITY : DEFAULT_OBSTACLE_DENSITY;
+    }
+
+    // 1-3 gaps in the outer wall, away from the corners
+    private void punchHoles(Random rand, char[][] grid) {
+        int holes = rand.nextInt(3) + 1;
+        for (int h = 0; h < holes; h++) {
+            int side = rand.nextInt(4); // 0=top, 1=bottom, 2=left, 3=right
+            int pos = rand.nextInt(((side <= 1) ? cols : rows) - 2) + 1;
+            boolean mirror = mode == Mode.SYMMETRIC;
+            switch (side) {
+                case 0, 1 -> {
+                    int r = (side == 0) ? 0 : rows - 1;
+                    grid[r][pos] = '.';
+                    if (mirror) {
+                        grid[rows - 1 - r][pos] = '.';
+                        grid[r][cols - 1 - pos] = '.';
+                        grid[rows - 1 - r][cols - 1 - pos] = '.';
+                    }
+                }
+                default -> {
+                    int c = (side == 2) ? 0 : cols - 1;
+                    grid[pos][c] = '.';
+                    if (mirror) {
+                        grid[pos][cols - 1 - c] = '.';
+                        grid[rows - 1 - pos][c] = '.';
+                        grid[rows - 1 - pos][cols - 1 - c] = '.';
+                    }
+                }
+            }
+        }
+    }
+
+    private void scatter(Random rand, char[][] grid, boolean symmetric) {
+        int interior = (rows - 2) * (cols - 2);
+        int count = (int) Math.round(effectiveDensity() * interior);
+        if (!symmetric) {
+            for (int i = 0; i < count; i++)
+                grid[rand.nextInt(rows - 2) + 1][rand.nextInt(cols - 2) + 1] = 'O';
+            return;
+        }
+        // Draw in the top-left quadrant (middle lines included) and mirror
+        int halfR = (rows - 1) / 2;
+        int halfC = (cols - 1) / 2;
+        for (int i = 0, n = (count + 3) / 4; i < n; i++) {
+            int r = rand.nextInt(halfR) + 1;
+            int c = rand.nextInt(halfC) + 1;
+            grid[r][c] = 'O';
+            grid[r][cols - 1 - c] = 'O';
+            grid[rows - 1 - r][c] = 'O';
+            grid[rows - 1 - r][cols - 1 - c] = 'O';
+        }
+    }
+
+    // Rooms on odd (r, c) inside the wall; Kruskal joins them by opening the
+    // wall cell between two rooms whenever they are not yet connected
+    private void maze(Random rand, char[][] grid) {
+        int lastR = (rows - 2) | 1;
+        if (lastR > rows - 2)
+            lastR -= 2;
+        int lastC = (cols - 2) | 1;
+        if (lastC > cols - 2)
+            lastC -= 2;
+        for (int r = 1; r <= lastR; r++)
+            for (int c = 1; c <= lastC; c++)
+                if ((r & 1) == 0 || (c & 1) == 0)
+                    grid[r][c] = '#';
+
+        if (mazeWalls == null)
+            mazeWalls = new int[rows * cols];
+        int walls = 0;
+        for (int r = 1; r <= lastR; r++)
+            for (int c = 1; c <= lastC; c++)
+                if (((r ^ c) & 1) == 1)
+                    mazeWalls[walls++] = r * cols + c;
+        for (int i = walls - 1; i > 0; i--) {
+            int j = rand.nextInt(i + 1);
+            int t = mazeWalls[i];
+            mazeWalls[i] = mazeWalls[j];
+            mazeWalls[j] = t;
+        }
+
+        // Union-find over the rooms only: label once, then join as walls open
+        regions.label(grid);
+        for (int i = 0; i < walls; i++) {
+            int cell = mazeWalls[i];
+            int r = cell / cols;
+            int c = cell % cols;
+            int a = ((r & 1) == 0) ? cell - cols : cell - 1;
+            int b = ((r & 1) == 0) ? cell + cols : cell + 1;
+            if (regions.find(a) != regions.find(b)) {
+                grid[r][c] = '.';
+                regions.join(a, b);
+            }
+        }
+
+        // Braid: drop most leftover walls (pillars included) so the maze has
+        // loops. Each wall rolls 16 bits, four walls to a nextLong
+        int keep = (int) Math.round(effectiveDensity() * 65536);
+        long bits = 0L;
+        int bitsLeft = 0;
+        for (int r = 1; r <= lastR; r++) {
+            for (int c = 1; c <= lastC; c++) {
+                if (grid[r][c] != '#')
+                    continue;
+                if (bitsLeft == 0) {
+                    bits = rand.nextLong();
+                    bitsLeft = 4;
+                }
+                if ((int) (bits & 0xFFFF) >= keep)
+                    grid[r][c] = '.';
+                bits >>>= 16;
+                bitsLeft--;
+            }
+        }
+    }
+
+    private void placeRamps(Random rand, char[][] grid) {
+        int interior = (rows - 2) * (cols - 2);
+        int count = (int) Math.round(rampDensity * interior);
+        for (int i = 0; i < count; i++) {
+            int r = rand.nextInt(rows - 2) + 1;
+            int c = rand.nextInt(cols - 2) + 1;
+            if (grid[r][c] == '.')
+                grid[r][c] = 'S';
+        }
+    }
+
+    // Fill every open pocket outside the largest region, then list the spawn
+    // cells. The start cell's pocket is joined to the largest region instead
+    private void connect(char[][] grid, int start) {
+        if (regions.label(grid) > 1 && regions.find(start) != regions.largestRoot()) {
+            carveToMain(grid, start);
+            regions.label(grid);
+        }
+        if (regions.regionCount() > 1) {
+            int main = regions.largestRoot();
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    int i = r * cols + c;
+                    int root = regions.find(i);
+                    if (root >= 0 && root != main)
+                        grid[r][c] = (r == 0 || c == 0 || r == rows - 1 || c == cols - 1) ? '#' : 'O';
+                }
+            }
+        }
+        spawnCells = regions.spawnCells(grid);
+    }
+
+    // Breadth-first from start through interior cells of any tile until the
+    // largest region is reached, then open the blocked cells on that path
+    private void carveToMain(char[][] grid, int start) {
+        if (carveQueue == null) {
+            carveQueue = new int[rows * cols];
+            carveFrom = new int[rows * cols];
+        }
+        Arrays.fill(carveFrom, -1);
+        int main = regions.largestRoot();
+        int head = 0;
+        int tail = 0;
+        carveQueue[tail++] = start;
+        carveFrom[start] = start;
+        int reached = -1;
+        while (head < tail && reached < 0) {
+            int cell = carveQueue[head++];
+            int r = cell / cols;
+            int c = cell % cols;
+            for (int d = 0; d < 4; d++) {
+                int nr = r + ((d == 0) ? -1 : (d == 1) ? 1 : 0);
+                int nc = c + ((d == 2) ? 1 : (d == 3) ? -1 : 0);
+                if (nr < 0 || nc < 0 || nr >= rows || nc >= cols)
+                    continue;
+                int next = nr * cols + nc;
+                if (carveFrom[next] >= 0)
+                    continue;
+                if (regions.find(next) == main) {
+                    carveFrom[next] = cell;
+                    reached = next;
+                    break;
+                }
+                // Only interior cells are carved through; the outer wall stays
+                if (nr == 0 || nc == 0 || nr == rows - 1 || nc == cols - 1)
+                    continue;
+                carveFrom[next] = cell;
+                carveQueue[tail++] = next;
+            }
+        }
+        if (reached < 0)
+            return;
+        for (int cell = carveFrom[reached]; cell != start; cell = carveFrom[cell]) {
+            char tile = grid[cell / cols][cell % cols];
+            if (tile != '.' && tile != 'S')
+                grid[cell / cols][cell % cols] = '.';
+        }
+    }
+}
@@ -18,6 +18,7 @@ import characters.Tron;
 import characters.Kevin;
 import characters.Direction;
 import controller.GameController;
+import controller.SwingGameObserver;
 import UI.GamePanel;
 import XPSystem.TronRules; // Math for XP
 
@@ -223,19 +224,12 @@ public class ArenaLoader {
     }
 
     public static Arena loadArena(int choice) {
+        return loadArena(choice, MatchSeed.random());
+    }
+
+    public static Arena loadArena(int choice, MatchSeed seed) {
         try {
-            switch (currentChapter) {
-                case 1:
-                    return new ArenaOne();
-                case 2:
-                    return new ArenaTwo();
-                case 3:
-                    return new ArenaThree();
-                case 4:
-                case 5:
-                default:
-                    return new RandomArena();
-            }
+            return Arena.forChapter(currentChapter, seed);
         } catch (Exception ex) {
             System.err.println(
                     "[ArenaLoader] Failed to load arena for chapter " + currentChapter + ": " + ex.getMessage());
@@ -252,7 +246,7 @@ public class ArenaLoader {
     private static Map<String, ImageIcon> loadAllIcons(JFrame frame) {
         Map<String, ImageIcon> icons = new HashMap<>();
         int screenHeight = Toolkit.getDefaultToolkit().getScreenSize().height;
-        int TRUE_CELL_SIZE = (int) ((screenHeight * 2) / 40);
+        int TRUE_CELL_SIZE = (int) ((screenHeight * 2) / Arena.DEFAULT_ROWS);
         int FACE_SIZE = (int) (screenHeight / 45);
         final int HUD_ICON_SIZE = 60;
         final int DISC_INVENTORY_SIZE = 50;
@@ -526,8 +520,8 @@ public class ArenaLoader {
         return sidebar;
     }
 
-    // UPDATED HUD LOGIC
-    public static void updateHUD(JPanel sidebar, Character player, Map<String, ImageIcon> icons) {
+    // UPDATED HUD LOGIC: the player is entity 0 of the snapshot
+    public static void updateHUD(JPanel sidebar, WorldSnapshot snapshot, Map<String, ImageIcon> icons) {
         JPanel hpContainer = null;
         JPanel discSlotsContainer = null;
         JProgressBar discCooldownBar = null;
@@ -593,8 +587,8 @@ public class ArenaLoader {
         // 1. UPDATE DISC SLOTS - Minecraft style inventory with disc icons
         if (discSlotsContainer != null) {
             discSlotsContainer.removeAll();
-            int maxDiscs = Math.max(player.getDiscCapacity(), 1); // Show at least 1 slot, based on actual disc capacity
-            int currentDiscs = player.currentDiscCount; // Current discs available
+            int maxDiscs = Math.max(snapshot.getDiscCapacity(0), 1); // Show at least 1 slot, based on actual disc capacity
+            int currentDiscs = snapshot.getDiscs(0); // Current discs available
 
             for (int i = 0; i < maxDiscs; i++) {
                 JLabel slot = new JLabel();
@@ -631,18 +625,18 @@ public class ArenaLoader {
 
         // 2. UPDATE HEARTS - Dynamic based on maxLives (Prefer saved max-level stats if
         // user is logged-in)
-        double displayMaxLives = player.getMaxLives();
-        double displayCurrentLives = player.getLives();
-        int displayDiscCap = player.getDiscCapacity();
-        double displaySpeed = player.getSpeed();
-        double displayHandling = player.getHandling();
-        int displayLevel = player.getLevel();
+        double displayMaxLives = snapshot.getMaxLives(0);
+        double displayCurrentLives = snapshot.getLives(0);
+        int displayDiscCap = snapshot.getDiscCapacity(0);
+        double displaySpeed = snapshot.getPlayerSpeed();
+        double displayHandling = snapshot.getPlayerHandling();
+        int displayLevel = snapshot.getPlayerLevel();
 
         // Use cached persistent character stats to avoid synchronous DB reads on the
         // EDT.
         // persistentTron / persistentKevin are loaded at arena start when the user is
         // logged in.
-        if (player.name.equals("Tron") && persistentTron != null) {
+        if ("Tron".equals(snapshot.getPlayerName()) && persistentTron != null) {
             int savedLevel = persistentTron.getLevel();
             displayLevel = Math.max(displayLevel, savedLevel);
             displaySpeed = persistentTron.getSpeed();
@@ -651,7 +645,7 @@ public class ArenaLoader {
             displayMaxLives = persistentTron.getMaxLives();
             if (displayCurrentLives > displayMaxLives)
                 displayCurrentLives = displayMaxLives;
-        } else if (player.name.equals("Kevin") && persistentKevin != null) {
+        } else if ("Kevin".equals(snapshot.getPlayerName()) && persistentKevin != null) {
             int savedLevel = persistentKevin.getLevel();
             displayLevel = Math.max(displayLevel, savedLevel);
             displaySpeed = persistentKevin.getSpeed();
@@ -691,7 +685,7 @@ public class ArenaLoader {
             levelLabel.setText("LEVEL " + displayLevel);
         }
         if (xpLabel != null) {
-            long currentXP = player.getXp();
+            long currentXP = snapshot.getPlayerXp();
             long nextXP = TronRules.getTotalXpForLevel(displayLevel + 1);
             xpLabel.setText("XP: " + currentXP + " / " + nextXP);
         }
@@ -713,8 +707,8 @@ public class ArenaLoader {
         if (discCooldownBar != null) {
             // Dynamic player cooldown: base 5s, -0.5s per 10 levels, floor at 1s
             double totalSeconds = 5.0;
-            if (player != null && player.isPlayer) {
-                int steps = Math.max(0, player.getLevel() / 10);
+            if (snapshot.isPlayerControlled()) {
+                int steps = Math.max(0, snapshot.getPlayerLevel() / 10);
                 totalSeconds = Math.max(1.0, 5.0 - (steps * 0.5));
             }
 
@@ -739,175 +733,21 @@ public class ArenaLoader {
         }
     }
 
-    public static void redrawArena(JFrame frame, Arena arena, List<Character> cycles, Map<String, ImageIcon> icons,
-            JPanel arenaPanel, JPanel sidebar) {
-        arenaPanel.removeAll();
-        char[][] grid = arena.getGrid();
-        Color NEON_BG = new Color(10, 10, 20);
-        Color GRID_LINE = new Color(30, 40, 60);
-        Color WALL_COLOR = new Color(0, 50, 80);
-        Color WALL_BORDER = new Color(0, 200, 255);
-
-        // Check if player is on speed ramp for booster effect
-        int playerR = cycles.get(0).getRow();
-        int playerC = cycles.get(0).getCol();
-        boolean playerBoosting = playerR >= 0 && playerR < 40 && playerC >= 0 && playerC < 40
-                && grid[playerR][playerC] == 'S';
-
-        for (int r = 0; r < 40; r++) {
-            for (int c = 0; c < 40; c++) {
-                JPanel cellPanel = new JPanel(new BorderLayout());
-                cellPanel.setOpaque(true);
-                cellPanel.setBackground(NEON_BG);
-                cellPanel.setBorder(BorderFactory.createLineBorder(GRID_LINE, 1));
-                JLabel iconLabel = new JLabel();
-                iconLabel.setHorizontalAlignment(JLabel.CENTER);
-                iconLabel.setVerticalAlignment(JLabel.CENTER);
-                cellPanel.add(iconLabel, BorderLayout.CENTER);
-
-                Character characterHere = null;
-                for (Character cycle : cycles) {
-                    if (cycle.getRow() == r && cycle.getCol() == c) {
-                        characterHere = cycle;
-                        break;
-                    }
-                }
-
-                if (characterHere != null) {
-                    String iconKey = characterHere.imageBaseName + "_" + characterHere.currentDirection.toString();
-                    if (icons.containsKey(iconKey))
-                        iconLabel.setIcon(icons.get(iconKey));
-                    else
-                        iconLabel.setText("?");
-
-                    if (characterHere.name.equals("Tron")) {
-                        cellPanel.setBackground(new Color(0, 100, 180));
-                        cellPanel.setBorder(BorderFactory.createLineBorder(Color.CYAN, 2));
-                    } else {
-                        cellPanel.setBackground(new Color(100, 40, 0));
-                        // Boss enemies get special visual indicator (bright red border + purple
-                        // background)
-                        if (characterHere instanceof designenemies.Enemy) {
-                            designenemies.Enemy enemy = (designenemies.Enemy) characterHere;
-                            if (enemy.isBoss()) {
-                                cellPanel.setBackground(new Color(150, 0, 50)); // Dark purple/red
-                                cellPanel.setBorder(BorderFactory.createLineBorder(Color.MAGENTA, 3)); // Thick magenta
-                                                                                                       // border
-
-                            } else {
-                                cellPanel.setBorder(BorderFactory.createLineBorder(Color.RED, 2));
-                            }
-                        } else {
-                            cellPanel.setBorder(BorderFactory.createLineBorder(Color.RED, 2));
-                        }
-                    }
-
-                    // Only show an HP bar for enemies (player doesn't need it visible)
-                    if (characterHere instanceof designenemies.Enemy) {
-                        double hpPercent = characterHere.getLives() / characterHere.getMaxLives();
-                        hpPercent = Math.max(0, Math.min(1, hpPercent));
-                        JProgressBar hpBar = new JProgressBar(0, 100);
-                        hpBar.setValue((int) (hpPercent * 100));
-                        hpBar.setPreferredSize(new Dimension(0, 5));
-                        hpBar.setForeground(hpPercent > 0.5 ? Color.GREEN : Color.RED);
-                        hpBar.setBackground(Color.BLACK);
-                        hpBar.setBorderPainted(false);
-                        cellPanel.add(hpBar, BorderLayout.SOUTH);
-                    }
-                } else {
-                    switch (grid[r][c]) {
-                        case '#':
-                            cellPanel.setBackground(WALL_COLOR);
-                            cellPanel.setBorder(BorderFactory.createLineBorder(WALL_BORDER, 1));
-                            break;
-                        case 'O':
-                            cellPanel.setBackground(NEON_BG);
-                            if (icons.get("obstacle") != null)
-                                iconLabel.setIcon(icons.get("obstacle"));
-                            else
-                                cellPanel.setBackground(new Color(255, 140, 0));
-                            break;
-                        case 'S':
-                            cellPanel.setBackground(NEON_BG);
-                            if (icons.get("speed") != null)
-                                iconLabel.setIcon(icons.get("speed"));
-                            else
-                                cellPanel.setBackground(Color.CYAN);
-                            break;
-                        case 'D':
-                            cellPanel.setBackground(new Color(0, 30, 50));
-                            if (icons.get("disc") != null)
-                                iconLabel.setIcon(icons.get("disc"));
-                            else {
-                                iconLabel.setText("O");
-                                iconLabel.setForeground(Color.CYAN);
-                            }
-                            cellPanel.setBorder(BorderFactory.createLineBorder(Color.CYAN, 1));
-                            break;
-                        case 'E':
-                            cellPanel.setBackground(new Color(30, 0, 20));
-                            if (icons.get("disc_enemy") != null)
-                                iconLabel.setIcon(icons.get("disc_enemy"));
-                            else {
-                                iconLabel.setText("O");
-                                iconLabel.setForeground(Color.RED);
-                            }
-                            cellPanel.setBorder(BorderFactory.createLineBorder(Color.RED, 1));
-                            break;
-                        case 'T':
-                            // BOOSTER EFFECT: Tron tail glows bright when boosting
-                            if (playerBoosting) {
-                                cellPanel.setBackground(new Color(0, 255, 200)); // Bright neon cyan
-                                cellPanel.setBorder(BorderFactory.createLineBorder(Color.YELLOW, 2)); // Yellow glow
-                                                                                                      // border
-                            } else {
-                                cellPanel.setBackground(new Color(0, 180, 255));
-                                cellPanel.setBorder(BorderFactory.createLineBorder(Color.WHITE, 1));
-                            }
-                            break;
-                        case 'K':
-                            // Kevin's tail (white)
-                            if (playerBoosting) {
-                                cellPanel.setBackground(Color.WHITE);
-                                cellPanel.setBorder(BorderFactory.createLineBorder(Color.YELLOW, 2));
-                            } else {
-                                cellPanel.setBackground(Color.WHITE);
-                                cellPanel.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY, 1));
-                            }
-                            break;
-                        // --- NEW COLORED TRAILS ---
-                        case 'C': // Clu (orange for stronger contrast)
-                            cellPanel.setBackground(new Color(255, 140, 0)); // bright orange
-                            cellPanel.setBorder(BorderFactory.createLineBorder(new Color(200, 100, 0), 2));
-                            break;
-                        case 'Y': // Sark (vivid yellow)
-                            cellPanel.setBackground(new Color(255, 230, 0)); // vivid yellow
-                            cellPanel.setBorder(BorderFactory.createLineBorder(Color.BLACK, 1));
-                            break;
-                        case 'G': // Koura (Green)
-                            cellPanel.setBackground(new Color(50, 205, 50));
-                            cellPanel.setBorder(BorderFactory.createLineBorder(new Color(0, 100, 0), 1));
-                            break;
-                        case 'R': // Rinzler (Red)
-                            cellPanel.setBackground(new Color(220, 20, 60));
-                            cellPanel.setBorder(BorderFactory.createLineBorder(new Color(100, 0, 0), 1));
-                            break;
-                        case 'M':
-                            cellPanel.setBackground(new Color(255, 50, 0));
-                            cellPanel.setBorder(BorderFactory.createLineBorder(Color.YELLOW, 1));
-                            break;
-                    }
-                }
-                arenaPanel.add(cellPanel);
-            }
-        }
-        if (cycles.get(0).isStunned)
+    public static void redrawArena(JFrame frame, Arena arena, Map<String, ImageIcon> icons, JPanel arenaPanel,
+            JPanel sidebar) {
+        // The arena is a single custom-painted component; just hand it the latest state.
+        // The HUD reads the same snapshot, never the live player the game thread moves
+        if (!(arenaPanel instanceof ArenaView view))
+            return;
+        view.render(arena, icons);
+        WorldSnapshot snapshot = view.getSnapshot();
+        if (snapshot == null || snapshot.getEntityCount() == 0)
+            return;
+        if (snapshot.isStunned(0))
             sidebar.setBackground(new Color(150, 0, 0));
         else
             sidebar.setBackground(new Color(5, 10, 20));
-        updateHUD(sidebar, cycles.get(0), icons);
-        arenaPanel.revalidate();
-        arenaPanel.repaint();
+        updateHUD(sidebar, snapshot, icons);
     }
 
     public static void showGameOverDialog(JFrame parentFrame) {
@@ -998,8 +838,13 @@ public class ArenaLoader {
             activeController = null;
             mainFrame.getContentPane().removeAll();
 
+            // One seed drives every random draw of this stage; logged so it can be replayed
+            MatchSeed matchSeed = MatchSeed.random();
+            System.out.println("[ArenaLoader] Match seed for C" + currentChapter + " S" + currentStage + ": "
+                    + matchSeed);
+
             // Select arena based on the current chapter so transitions load correct map
-            Arena arena = loadArena(currentChapter);
+            Arena arena = loadArena(currentChapter, matchSeed);
             Map<String, ImageIcon> icons = loadAllIcons(mainFrame);
 
             // --- PERSISTENCE LOGIC ---
@@ -1058,10 +903,12 @@ public class ArenaLoader {
             }
 
             // Reset Position for new level
-            persistentPlayer.r = 20;
-            persistentPlayer.c = 15;
+            persistentPlayer.r = arena.getPlayerStartRow();
+            persistentPlayer.c = arena.getPlayerStartCol();
             persistentPlayer.currentDirection = Direction.EAST;
             persistentPlayer.setStunned(false); // Make sure the player isn't stunned from last level
+            // Route the player's log lines and achievements to the HUD
+            persistentPlayer.setObserver(SwingGameObserver.INSTANCE);
             // Refill discs and reset health for new stage
             persistentPlayer.prepareForNextStage();
 
@@ -1070,7 +917,8 @@ public class ArenaLoader {
             cycles.add(persistentPlayer);
 
             // Load Enemies
-            List<Character> enemies = LevelManager.loadStage(currentChapter, currentStage, arena.getGrid());
+            List<Character> enemies = LevelManager.loadStage(currentChapter, currentStage, arena,
+                    matchSeed.stream(MatchSeed.LEVEL));
             cycles.addAll(enemies);
 
             // Check if any boss enemies spawned and show notification
@@ -1098,8 +946,7 @@ public class ArenaLoader {
             UI.GamePanel gamePanel = new UI.GamePanel();
             // keep reference so post-stage cutscenes can reuse the same overlay
             activeGamePanel = gamePanel;
-            JPanel arenaPanel = new JPanel(new GridLayout(40, 40));
-            arenaPanel.setBackground(new Color(10, 10, 20));
+            ArenaView arenaPanel = new ArenaView();
 
             // Pass the selected persistent player to sidebar
             JPanel sidebarPanel = createSidebarPanel(persistentPlayer, icons);
@@ -1169,8 +1016,10 @@ public class ArenaLoader {
                             System.out.println("WARN: Failed to swap panels: " + e.getMessage());
                         }
 
-                        // Populate arena and refresh UI
-                        redrawArena(mainFrame, arena, cycles, icons, arenaPanel, sidebarPanel);
+                        // Populate arena and refresh UI; the game thread has not started yet, so the
+                        // first snapshot is published from here
+                        arena.publishSnapshot(cycles, 0);
+                        redrawArena(mainFrame, arena, icons, arenaPanel, sidebarPanel);
                         mainFrame.revalidate();
                         mainFrame.repaint();
 
@@ -1183,7 +1032,7 @@ public class ArenaLoader {
 
                         // Start the active controller (game loop)
                         activeController = new GameController(mainFrame, arena, cycles, icons, arenaPanel,
-                                sidebarPanel);
+                                sidebarPanel, matchSeed);
                         gameThread = new Thread(activeController);
                         gameThread.start();
                         // Allow future startLevel calls after initialization completes
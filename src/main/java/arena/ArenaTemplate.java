@@ -0,0 +1,168 @@
+package arena;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An arena layout parsed from a map file under data/arenas/, kept as an
+ * immutable base grid. Each stage copies it into its own grid instead of
+ * re-running layout code, and every map is parsed and validated once per
+ * process: templates are cached by map id.
+ *
+ * Map file format (data/arenas/{id}.txt): lines starting with ';' are
+ * comments, blank lines are ignored, every other line is one grid row. Rows
+ * must all have the same length and use only '.' (floor), '#' (wall),
+ * 'O' (obstacle) and 'S' (speed ramp).
+ */
+public final class ArenaTemplate {
+
+    public static final String MAP_DIR = "data/arenas";
+    private static final String TILES = ".#OS";
+
+    private static final Map<String, ArenaTemplate> cache = new ConcurrentHashMap<>();
+
+    private final String id;
+    private final int rows;
+    private final int cols;
+    private final char[][] tiles;
+    private final int openCells;
+    private final int regionCount;
+    private final int mainRegionSize;
+    private final int[] spawnCells;
+
+    private ArenaTemplate(String id, char[][] tiles) {
+        this.id = id;
+        this.rows = tiles.length;
+        this.cols = tiles[0].length;
+        this.tiles = tiles;
+        int open = 0;
+        for (char[] row : tiles)
+            for (char t : row)
+                if (t == '.' || t == 'S')
+                    open++;
+        this.openCells = open;
+        OpenRegions regions = new OpenRegions(rows, cols);
+        this.regionCount = regions.label(tiles);
+        this.mainRegionSize = regions.largestSize();
+        this.spawnCells = regions.spawnCells(tiles);
+    }
+
+    /** An uncached template for a layout built in code (e.g. by {@link ArenaGenerator}); the grid is copied. */
+    public static ArenaTemplate fromGrid(String id, char[][] grid) {
+        char[][] tiles = new char[grid.length][];
+        for (int r = 0; r < grid.length; r++)
+            tiles[r] = grid[r].clone();
+        return new ArenaTemplate(id, tiles);
+    }
+
+    /**
+     * The template for a map id, parsed and validated on first use. Throws
+     * UncheckedIOException when the file cannot be read and
+     * IllegalArgumentException when it is malformed or fails validation.
+     */
+    public static ArenaTemplate get(String id) {
+        return cache.computeIfAbsent(id, ArenaTemplate::load);
+    }
+
+    /** Drop every cached template (e.g. after editing map files). */
+    public static void clearCache() {
+        cache.clear();
+    }
+
+    private static ArenaTemplate load(String id) {
+        File file = new File(MAP_DIR, id + ".txt");
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read arena map " + file.getPath(), e);
+        }
+        ArenaTemplate template = parse(id, lines);
+        List<String> problems = template.validate();
+        if (!problems.isEmpty())
+            throw new IllegalArgumentException("Arena map '" + id + "' is invalid: " + String.join("; ", problems));
+        System.out.println("[ArenaTemplate] Loaded '" + id + "' (" + template.rows + "x" + template.cols + ", "
+                + template.openCells + " open cells)");
+        return template;
+    }
+
+    /** Parse map file lines; does not validate reachability. */
+    public static ArenaTemplate parse(String id, List<String> lines) {
+        List<char[]> rows = new ArrayList<>();
+        int width = -1;
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).stripTrailing();
+            if (line.isEmpty() || line.startsWith(";"))
+                continue;
+            if (width < 0)
+                width = line.length();
+            else if (line.length() != width)
+                throw new IllegalArgumentException("Arena map '" + id + "' line " + (i + 1) + ": expected " + width
+                        + " tiles, found " + line.length());
+            for (int c = 0; c < line.length(); c++) {
+                if (TILES.indexOf(line.charAt(c)) < 0)
+                    throw new IllegalArgumentException("Arena map '" + id + "' line " + (i + 1) + ": unknown tile '"
+                            + line.charAt(c) + "' at column " + (c + 1));
+            }
+            rows.add(line.toCharArray());
+        }
+        if (rows.size() < 3 || width < 3)
+            throw new IllegalArgumentException("Arena map '" + id + "' must be at least 3x3");
+        return new ArenaTemplate(id, rows.toArray(new char[0][]));
+    }
+
+    /**
+     * Checks that the layout is playable: it has open cells, and every open
+     * cell can be reached from every other (no sealed pockets an enemy could
+     * spawn into). Returns the problems found, empty when valid.
+     */
+    public List<String> validate() {
+        List<String> problems = new ArrayList<>();
+        if (openCells == 0)
+            problems.add("no open cells");
+        else if (regionCount > 1)
+            problems.add((openCells - mainRegionSize) + " open cells are cut off from the main area (" + regionCount
+                    + " separate regions)");
+        if (openCells > 0 && spawnCells.length == 0)
+            problems.add("no spawn cells");
+        return problems;
+    }
+
+    /** Copy the layout into a grid of the same size. */
+    public void copyInto(char[][] grid) {
+        for (int r = 0; r < rows; r++)
+            System.arraycopy(tiles[r], 0, grid[r], 0, cols);
+    }
+
+    public char tileAt(int r, int c) {
+        return tiles[r][c];
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getOpenCells() {
+        return openCells;
+    }
+
+    /** Spawn cells (r * cols + c), computed once per template. Shared, do not modify. */
+    public int[] getSpawnCells() {
+        return spawnCells;
+    }
+}
@@ -0,0 +1,376 @@
+package arena;
+
+import javax.swing.ImageIcon;
+import javax.swing.JPanel;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.Map;
+
+// Retained-mode arena renderer: one component that paints the char[][] grid
+// straight into Graphics2D instead of rebuilding 1,600 JPanels every tick.
+// Everything is read from the latest WorldSnapshot the game thread published,
+// never from the live arena. Tiles are kept in an offscreen layer and only the
+// snapshot's dirty cells are redrawn; light cycles are painted on top,
+// interpolated between their previous and current cell by move progress.
+public class ArenaView extends JPanel {
+
+    private static final Color NEON_BG = new Color(10, 10, 20);
+    private static final Color GRID_LINE = new Color(30, 40, 60);
+    private static final Color WALL_COLOR = new Color(0, 50, 80);
+    private static final Color WALL_BORDER = new Color(0, 200, 255);
+    private static final Color OBSTACLE_FALLBACK = new Color(255, 140, 0);
+    private static final Color DISC_BG = new Color(0, 30, 50);
+    private static final Color ENEMY_DISC_BG = new Color(30, 0, 20);
+    private static final Color TRON_TRAIL = new Color(0, 180, 255);
+    private static final Color TRON_TRAIL_BOOST = new Color(0, 255, 200);
+    private static final Color CLU_TRAIL = new Color(255, 140, 0);
+    private static final Color CLU_TRAIL_BORDER = new Color(200, 100, 0);
+    private static final Color SARK_TRAIL = new Color(255, 230, 0);
+    private static final Color KOURA_TRAIL = new Color(50, 205, 50);
+    private static final Color KOURA_TRAIL_BORDER = new Color(0, 100, 0);
+    private static final Color RINZLER_TRAIL = new Color(220, 20, 60);
+    private static final Color RINZLER_TRAIL_BORDER = new Color(100, 0, 0);
+    private static final Color MINION_TRAIL = new Color(255, 50, 0);
+    private static final Color TRON_HEAD = new Color(0, 100, 180);
+    private static final Color ENEMY_HEAD = new Color(100, 40, 0);
+    private static final Color BOSS_HEAD = new Color(150, 0, 50);
+    private static final int HP_BAR_HEIGHT = 5;
+    private static final Color OVERLAY_BG = new Color(0, 0, 0, 170);
+    private static final Color OVERLAY_TEXT = new Color(0, 255, 200);
+    private static final int OVERLAY_LINE_H = 16;
+    private static final int OVERLAY_W = 520;
+    private static final Font OVERLAY_FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+
+    private WorldSnapshot snapshot;
+    private Map<String, ImageIcon> icons = Collections.emptyMap();
+    private boolean forceFull = true;
+
+    // Offscreen tile layer and the geometry it was drawn with
+    private BufferedImage tileLayer;
+    private int cellW, cellH, offX, offY;
+    private boolean layerBoosting = false;
+    // Head cells painted last frame, so they are erased when a cycle moves
+    private int[] lastHeadCells = new int[0];
+    private int lastHeadCount = 0;
+
+    // Cells redrawn into the tile layer (per frame and in total)
+    private int cellsRepaintedLastFrame = 0;
+    private long cellsRepaintedTotal = 0;
+    private long framesRendered = 0;
+
+    // Optional debug text drawn in the top-left corner, and a hook run after every paint
+    private String[] overlayLines;
+    private int overlayHeight = 0;
+    private Runnable paintListener;
+
+    public ArenaView() {
+        setOpaque(true);
+        setBackground(NEON_BG);
+    }
+
+    // Pick up the arena's newest published snapshot and repaint what changed (call on the EDT)
+    public void render(Arena arena, Map<String, ImageIcon> icons) {
+        boolean newIcons = icons != this.icons;
+        this.icons = icons;
+        WorldSnapshot next = arena.getSnapshots().take();
+        if (next == null && !newIcons)
+            return;
+        if (next != null) {
+            if (snapshot == null || next.getArena() != snapshot.getArena())
+                forceFull = true;
+            snapshot = next;
+        } else {
+            forceFull = true;
+        }
+        if (snapshot == null)
+            return;
+        updateTileLayer();
+        repaintHeads();
+        framesRendered++;
+    }
+
+    /** The snapshot the last {@link #render} picked up (EDT only; null before the first). */
+    public WorldSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public int getCellsRepaintedLastFrame() {
+        return cellsRepaintedLastFrame;
+    }
+
+    public long getCellsRepaintedTotal() {
+        return cellsRepaintedTotal;
+    }
+
+    public long getFramesRendered() {
+        return framesRendered;
+    }
+
+    /** Show (or with null, hide) a block of debug text over the arena. */
+    public void setOverlay(String[] lines) {
+        int oldHeight = overlayHeight;
+        this.overlayLines = lines;
+        this.overlayHeight = (lines == null) ? 0 : lines.length * OVERLAY_LINE_H + 8;
+        int h = Math.max(oldHeight, overlayHeight);
+        if (h > 0)
+            repaint(0, 0, OVERLAY_W, h);
+    }
+
+    /** Called on the EDT each time a frame has finished painting. */
+    public void setPaintListener(Runnable listener) {
+        this.paintListener = listener;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        WorldSnapshot s = snapshot;
+        if (s == null)
+            return;
+        if (tileLayer == null || !layoutMatches())
+            updateTileLayer();
+        if (tileLayer == null)
+            return;
+
+        Graphics2D g2 = (Graphics2D) g.create();
+        try {
+            // Clip limits the blit to the repainted cells
+            g2.drawImage(tileLayer, 0, 0, null);
+
+            Rectangle clip = g2.getClipBounds();
+            if (clip == null)
+                clip = new Rectangle(0, 0, getWidth(), getHeight());
+            // Light cycles are drawn on top of the tile layer
+            for (int i = 0; i < s.getEntityCount(); i++) {
+                double alpha = Math.max(0.0, Math.min(1.0, s.getProgress(i)));
+                double col = s.getPrevCol(i) + (s.getCol(i) - s.getPrevCol(i)) * alpha;
+                double row = s.getPrevRow(i) + (s.getRow(i) - s.getPrevRow(i)) * alpha;
+                int x = offX + (int) Math.round(col * cellW);
+                int y = offY + (int) Math.round(row * cellH);
+                if (!clip.intersects(x, y, cellW, cellH))
+                    continue;
+                paintCycle(g2, s, i, x, y, cellW, cellH);
+            }
+            String[] lines = overlayLines;
+            if (lines != null && clip.intersects(0, 0, OVERLAY_W, overlayHeight))
+                paintOverlay(g2, lines);
+        } finally {
+            g2.dispose();
+        }
+        if (paintListener != null)
+            paintListener.run();
+    }
+
+    private void paintOverlay(Graphics2D g, String[] lines) {
+        g.setColor(OVERLAY_BG);
+        g.fillRect(0, 0, OVERLAY_W, overlayHeight);
+        g.setFont(OVERLAY_FONT);
+        g.setColor(OVERLAY_TEXT);
+        for (int i = 0; i < lines.length; i++)
+            g.drawString(lines[i], 6, 4 + (i + 1) * OVERLAY_LINE_H - 4);
+    }
+
+    // Redraw dirty cells into the offscreen layer and queue their rectangles
+    private void updateTileLayer() {
+        WorldSnapshot s = snapshot;
+        int rows = s.getRows();
+        int cols = s.getCols();
+        if (getWidth() <= 0 || getHeight() <= 0)
+            return;
+
+        boolean full = forceFull || s.isFullRepaint();
+        forceFull = false;
+        if (tileLayer == null || !layoutMatches()) {
+            cellW = Math.max(1, getWidth() / cols);
+            cellH = Math.max(1, getHeight() / rows);
+            offX = (getWidth() - cellW * cols) / 2;
+            offY = (getHeight() - cellH * rows) / 2;
+            tileLayer = new BufferedImage(getWidth(), getHeight(), BufferedImage.TYPE_INT_RGB);
+            full = true;
+        }
+
+        // Check if player is on speed ramp for booster effect; it recolours every player trail cell
+        boolean playerBoosting = s.getEntityCount() > 0 && s.getRow(0) >= 0 && s.getRow(0) < rows
+                && s.getCol(0) >= 0 && s.getCol(0) < cols
+                && s.tile(s.getRow(0), s.getCol(0)) == 'S';
+        if (playerBoosting != layerBoosting) {
+            layerBoosting = playerBoosting;
+            full = true;
+        }
+
+        Graphics2D g = tileLayer.createGraphics();
+        try {
+            if (full) {
+                g.setColor(NEON_BG);
+                g.fillRect(0, 0, tileLayer.getWidth(), tileLayer.getHeight());
+                for (int r = 0; r < rows; r++)
+                    for (int c = 0; c < cols; c++)
+                        paintTile(g, s.tile(r, c), offX + c * cellW, offY + r * cellH, cellW, cellH, playerBoosting);
+                cellsRepaintedLastFrame = rows * cols;
+                repaint();
+            } else {
+                int n = s.getDirtyCount();
+                for (int i = 0; i < n; i++) {
+                    int r = s.getDirtyCell(i) / cols;
+                    int c = s.getDirtyCell(i) % cols;
+                    int x = offX + c * cellW;
+                    int y = offY + r * cellH;
+                    paintTile(g, s.tile(r, c), x, y, cellW, cellH, playerBoosting);
+                    repaint(x, y, cellW, cellH);
+                }
+                cellsRepaintedLastFrame = n;
+            }
+        } finally {
+            g.dispose();
+        }
+        cellsRepaintedTotal += cellsRepaintedLastFrame;
+    }
+
+    private boolean layoutMatches() {
+        return tileLayer.getWidth() == getWidth() && tileLayer.getHeight() == getHeight();
+    }
+
+    // Heads slide between cells and their HP bars change: repaint the cells they
+    // covered last frame and the previous/current cells they span now
+    private void repaintHeads() {
+        WorldSnapshot s = snapshot;
+        for (int i = 0; i < lastHeadCount; i += 2)
+            repaint(offX + lastHeadCells[i + 1] * cellW, offY + lastHeadCells[i] * cellH, cellW, cellH);
+        int count = s.getEntityCount();
+        if (lastHeadCells.length < count * 4)
+            lastHeadCells = new int[count * 4];
+        lastHeadCount = 0;
+        for (int i = 0; i < count; i++) {
+            lastHeadCells[lastHeadCount++] = s.getRow(i);
+            lastHeadCells[lastHeadCount++] = s.getCol(i);
+            lastHeadCells[lastHeadCount++] = s.getPrevRow(i);
+            lastHeadCells[lastHeadCount++] = s.getPrevCol(i);
+            int minR = Math.min(s.getRow(i), s.getPrevRow(i));
+            int minC = Math.min(s.getCol(i), s.getPrevCol(i));
+            int spanR = Math.abs(s.getRow(i) - s.getPrevRow(i)) + 1;
+            int spanC = Math.abs(s.getCol(i) - s.getPrevCol(i)) + 1;
+            repaint(offX + minC * cellW, offY + minR * cellH, spanC * cellW, spanR * cellH);
+        }
+    }
+
+    private void paintTile(Graphics2D g, char tile, int x, int y, int w, int h, boolean playerBoosting) {
+        switch (tile) {
+            case '#' -> fillCell(g, x, y, w, h, WALL_COLOR, WALL_BORDER, 1);
+            case 'O' -> {
+                ImageIcon icon = icons.get("obstacle");
+                fillCell(g, x, y, w, h, icon != null ? NEON_BG : OBSTACLE_FALLBACK, GRID_LINE, 1);
+                paintIcon(g, icon, x, y, w, h);
+            }
+            case 'S' -> {
+                ImageIcon icon = icons.get("speed");
+                fillCell(g, x, y, w, h, icon != null ? NEON_BG : Color.CYAN, GRID_LINE, 1);
+                paintIcon(g, icon, x, y, w, h);
+            }
+            case 'D' -> {
+                fillCell(g, x, y, w, h, DISC_BG, Color.CYAN, 1);
+                paintIconOrText(g, icons.get("disc"), Color.CYAN, x, y, w, h);
+            }
+            case 'E' -> {
+                fillCell(g, x, y, w, h, ENEMY_DISC_BG, Color.RED, 1);
+                paintIconOrText(g, icons.get("disc_enemy"), Color.RED, x, y, w, h);
+            }
+            // BOOSTER EFFECT: player tail glows bright when boosting
+            case 'T' -> {
+                if (playerBoosting)
+                    fillCell(g, x, y, w, h, TRON_TRAIL_BOOST, Color.YELLOW, 2);
+                else
+                    fillCell(g, x, y, w, h, TRON_TRAIL, Color.WHITE, 1);
+            }
+            case 'K' -> {
+                if (playerBoosting)
+                    fillCell(g, x, y, w, h, Color.WHITE, Color.YELLOW, 2);
+                else
+                    fillCell(g, x, y, w, h, Color.WHITE, Color.LIGHT_GRAY, 1);
+            }
+            case 'C' -> fillCell(g, x, y, w, h, CLU_TRAIL, CLU_TRAIL_BORDER, 2);
+            case 'Y' -> fillCell(g, x, y, w, h, SARK_TRAIL, Color.BLACK, 1);
+            case 'G' -> fillCell(g, x, y, w, h, KOURA_TRAIL, KOURA_TRAIL_BORDER, 1);
+            case 'R' -> fillCell(g, x, y, w, h, RINZLER_TRAIL, RINZLER_TRAIL_BORDER, 1);
+            case 'M' -> fillCell(g, x, y, w, h, MINION_TRAIL, Color.YELLOW, 1);
+            default -> fillCell(g, x, y, w, h, NEON_BG, GRID_LINE, 1);
+        }
+    }
+
+    private void paintCycle(Graphics2D g, WorldSnapshot s, int i, int x, int y, int w, int h) {
+        byte kind = s.getKind(i);
+        if (kind == WorldSnapshot.KIND_TRON) {
+            fillCell(g, x, y, w, h, TRON_HEAD, Color.CYAN, 2);
+        } else if (kind == WorldSnapshot.KIND_BOSS) {
+            // Boss enemies get special visual indicator (thick magenta border + purple background)
+            fillCell(g, x, y, w, h, BOSS_HEAD, Color.MAGENTA, 3);
+        } else {
+            fillCell(g, x, y, w, h, ENEMY_HEAD, Color.RED, 2);
+        }
+
+        // Only show an HP bar for enemies (player doesn't need it visible)
+        int iconH = h;
+        if (kind == WorldSnapshot.KIND_ENEMY || kind == WorldSnapshot.KIND_BOSS) {
+            double hpPercent = s.getLives(i) / s.getMaxLives(i);
+            hpPercent = Math.max(0, Math.min(1, hpPercent));
+            int barY = y + h - HP_BAR_HEIGHT;
+            g.setColor(Color.BLACK);
+            g.fillRect(x, barY, w, HP_BAR_HEIGHT);
+            g.setColor(hpPercent > 0.5 ? Color.GREEN : Color.RED);
+            g.fillRect(x, barY, (int) (w * hpPercent), HP_BAR_HEIGHT);
+            iconH = h - HP_BAR_HEIGHT;
+        }
+
+        String iconKey = s.getImageBase(i) + "_" + s.getDirection(i).toString();
+        ImageIcon icon = icons.get(iconKey);
+        if (icon != null) {
+            paintIcon(g, icon, x, y, w, iconH);
+        } else {
+            g.setColor(Color.WHITE);
+            drawCenteredText(g, "?", x, y, w, iconH);
+        }
+    }
+
+    private static void fillCell(Graphics2D g, int x, int y, int w, int h, Color bg, Color border, int thickness) {
+        g.setColor(bg);
+        g.fillRect(x, y, w, h);
+        g.setColor(border);
+        // Same geometry as LineBorder: nested 1px rectangles inside the cell
+        for (int i = 0; i < thickness && (2 * i) < Math.min(w, h); i++) {
+            g.drawRect(x + i, y + i, w - 2 * i - 1, h - 2 * i - 1);
+        }
+    }
+
+    // Icons are centered and clipped to their cell, like a centered JLabel
+    private void paintIcon(Graphics2D g, ImageIcon icon, int x, int y, int w, int h) {
+        if (icon == null)
+            return;
+        Graphics2D cell = (Graphics2D) g.create(x, y, w, h);
+        try {
+            icon.paintIcon(this, cell, (w - icon.getIconWidth()) / 2, (h - icon.getIconHeight()) / 2);
+        } finally {
+            cell.dispose();
+        }
+    }
+
+    private void paintIconOrText(Graphics2D g, ImageIcon icon, Color fallback, int x, int y, int w, int h) {
+        if (icon != null) {
+            paintIcon(g, icon, x, y, w, h);
+        } else {
+            g.setColor(fallback);
+            drawCenteredText(g, "O", x, y, w, h);
+        }
+    }
+
+    private static void drawCenteredText(Graphics2D g, String text, int x, int y, int w, int h) {
+        java.awt.FontMetrics fm = g.getFontMetrics();
+        int tx = x + (w - fm.stringWidth(text)) / 2;
+        int ty = y + (h - fm.getHeight()) / 2 + fm.getAscent();
+        g.drawString(text, tx, ty);
+    }
+}
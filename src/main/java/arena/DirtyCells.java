@@ -0,0 +1,58 @@
+package arena;
+
+/**
+ * Set of grid cells whose tile changed since the renderer last drained it.
+ * The game thread marks cells at every grid mutation; the EDT drains the set
+ * and repaints only those cells. Starts out "all dirty" so the first frame is
+ * a full paint.
+ */
+public class DirtyCells {
+    private final int cols;
+    private final boolean[] marked;
+    private final int[] cells;
+    private int count = 0;
+    private boolean all = true;
+
+    public DirtyCells(int rows, int cols) {
+        this.cols = cols;
+        this.marked = new boolean[rows * cols];
+        this.cells = new int[rows * cols];
+    }
+
+    public synchronized void mark(int r, int c) {
+        if (all || r < 0 || c < 0 || c >= cols)
+            return;
+        int idx = r * cols + c;
+        if (idx >= marked.length || marked[idx])
+            return;
+        marked[idx] = true;
+        cells[count++] = idx;
+    }
+
+    public synchronized void markAll() {
+        all = true;
+    }
+
+    /**
+     * Move the pending cell indices (r * cols + c) into {@code out} and reset
+     * the set. Returns the number of cells copied, or -1 when everything has to
+     * be repainted. {@code out} must hold at least rows * cols entries.
+     */
+    public synchronized int drainTo(int[] out) {
+        if (all) {
+            all = false;
+            clearMarks();
+            return -1;
+        }
+        System.arraycopy(cells, 0, out, 0, count);
+        int n = count;
+        clearMarks();
+        return n;
+    }
+
+    private void clearMarks() {
+        for (int i = 0; i < count; i++)
+            marked[cells[i]] = false;
+        count = 0;
+    }
+}
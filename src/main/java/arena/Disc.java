@@ -14,6 +14,9 @@ public class Disc {
     public boolean enemyOwned = false; // true if thrown by enemy
     // Store the tile underneath the disc so we can restore it when disc leaves or is picked up
     private char originalTile = '.';
+    // Bookkeeping for DiscStore: dense-array slot and next disc on the same cell
+    int slot = -1;
+    Disc nextInCell;
 
     public Disc(Character owner, int startR, int startC, Direction dir, int maxDist) {
         this.owner = owner;
@@ -0,0 +1,96 @@
+package arena;
+
+import java.util.Arrays;
+
+/**
+ * Grid-indexed store for the discs in play. Discs live in a dense array
+ * (swap-remove, O(1)) and are also chained per cell so "which disc is on
+ * (r, c)" is a single array read. Mutated only from the game thread;
+ * readers can walk {@link #get(int)} up to {@link #size()} without copying.
+ */
+public class DiscStore {
+    private final int rows;
+    private final int cols;
+    private final Disc[] headByCell;
+    private Disc[] discs = new Disc[16];
+    private int size = 0;
+
+    public DiscStore(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.headByCell = new Disc[rows * cols];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Disc get(int i) {
+        return discs[i];
+    }
+
+    public void add(Disc disc) {
+        if (size == discs.length)
+            discs = Arrays.copyOf(discs, size * 2);
+        disc.slot = size;
+        discs[size++] = disc;
+        link(disc);
+    }
+
+    public void remove(Disc disc) {
+        int slot = disc.slot;
+        if (slot < 0 || slot >= size || discs[slot] != disc)
+            return;
+        unlink(disc);
+        Disc last = discs[--size];
+        discs[slot] = last;
+        last.slot = slot;
+        discs[size] = null;
+        disc.slot = -1;
+    }
+
+    /** Move a disc to (r, c), keeping the cell index in sync. */
+    public void moveTo(Disc disc, int r, int c) {
+        if (disc.slot < 0) {
+            disc.r = r;
+            disc.c = c;
+            return;
+        }
+        unlink(disc);
+        disc.r = r;
+        disc.c = c;
+        link(disc);
+    }
+
+    /** The disc on (r, c) (the most recently arrived one), or null. */
+    public Disc at(int r, int c) {
+        if (r < 0 || r >= rows || c < 0 || c >= cols)
+            return null;
+        return headByCell[r * cols + c];
+    }
+
+    private void link(Disc disc) {
+        if (disc.r < 0 || disc.r >= rows || disc.c < 0 || disc.c >= cols)
+            return;
+        int idx = disc.r * cols + disc.c;
+        disc.nextInCell = headByCell[idx];
+        headByCell[idx] = disc;
+    }
+
+    private void unlink(Disc disc) {
+        if (disc.r < 0 || disc.r >= rows || disc.c < 0 || disc.c >= cols)
+            return;
+        int idx = disc.r * cols + disc.c;
+        Disc prev = null;
+        for (Disc d = headByCell[idx]; d != null; prev = d, d = d.nextInCell) {
+            if (d == disc) {
+                if (prev == null)
+                    headByCell[idx] = d.nextInCell;
+                else
+                    prev.nextInCell = d.nextInCell;
+                break;
+            }
+        }
+        disc.nextInCell = null;
+    }
+}
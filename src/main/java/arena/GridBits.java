@@ -0,0 +1,283 @@
+package arena;
+
+import java.util.Arrays;
+
+/**
+ * Bit-plane copy of an arena grid: one bit per cell in long words, one plane
+ * per tile class (solid walls and obstacles, open cells, speed ramps, discs,
+ * and a trail plane per owner symbol). Row r of a plane starts at word
+ * r * stride, with column c in bit (c &amp; 63) of word c &gt;&gt;&gt; 6; bits past
+ * the last column stay zero.
+ *
+ * The char[][] grid stays authoritative (the renderer, loaders and simulation
+ * write it); planes are rebuilt from it in one pass with {@link #load} and then
+ * answer passability, line-of-sight and flood fills a word at a time. Walls and
+ * obstacles only change at design time, so the solid plane stays valid between
+ * loads.
+ */
+public final class GridBits {
+
+    /** Trail symbols with a plane of their own: players first, then enemies. */
+    public static final String TRAIL_SYMBOLS = "TKMCYGR";
+
+    private final int rows;
+    private final int cols;
+    private final int stride;
+    // Column-major layout of the solid plane, for vertical line-of-sight
+    private final int columnStride;
+
+    private final long[] solid;
+    private final long[] solidByColumn;
+    private final long[] open;
+    private final long[] ramp;
+    private final long[] disc;
+    private final long[] anyTrail;
+    private final long[][] trails;
+    // Edge cells of the grid, and every in-bounds cell
+    private final long[] border;
+    private final long[] inside;
+
+    public GridBits(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.stride = (cols + 63) >>> 6;
+        this.columnStride = (rows + 63) >>> 6;
+        this.solid = newPlane();
+        this.solidByColumn = new long[cols * columnStride];
+        this.open = newPlane();
+        this.ramp = newPlane();
+        this.disc = newPlane();
+        this.anyTrail = newPlane();
+        this.trails = new long[TRAIL_SYMBOLS.length()][];
+        for (int i = 0; i < trails.length; i++)
+            trails[i] = newPlane();
+        this.border = newPlane();
+        this.inside = newPlane();
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                set(inside, r, c);
+                if (r == 0 || c == 0 || r == rows - 1 || c == cols - 1)
+                    set(border, r, c);
+            }
+        }
+    }
+
+    /** Planes for a one-off grid (tools and strategies used outside the engine). */
+    public static GridBits of(char[][] grid) {
+        GridBits bits = new GridBits(grid.length, grid[0].length);
+        bits.load(grid);
+        return bits;
+    }
+
+    /** Rebuild every plane from the grid in a single pass. */
+    public void load(char[][] grid) {
+        Arrays.fill(solid, 0L);
+        Arrays.fill(solidByColumn, 0L);
+        Arrays.fill(open, 0L);
+        Arrays.fill(ramp, 0L);
+        Arrays.fill(disc, 0L);
+        Arrays.fill(anyTrail, 0L);
+        for (long[] plane : trails)
+            Arrays.fill(plane, 0L);
+
+        for (int r = 0; r < rows; r++) {
+            char[] row = grid[r];
+            int base = r * stride;
+            for (int c = 0; c < cols; c++) {
+                long bit = 1L << c;
+                int w = base + (c >>> 6);
+                switch (row[c]) {
+                    case '.' -> open[w] |= bit;
+                    case 'S' -> {
+                        open[w] |= bit;
+                        ramp[w] |= bit;
+                    }
+                    case '#', 'O' -> {
+                        solid[w] |= bit;
+                        solidByColumn[c * columnStride + (r >>> 6)] |= 1L << r;
+                    }
+                    case 'D', 'E' -> disc[w] |= bit;
+                    default -> {
+                        int owner = TRAIL_SYMBOLS.indexOf(row[c]);
+                        if (owner >= 0) {
+                            trails[owner][w] |= bit;
+                            anyTrail[w] |= bit;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    /** Words per row in every plane. */
+    public int stride() {
+        return stride;
+    }
+
+    public boolean inBounds(int r, int c) {
+        return r >= 0 && r < rows && c >= 0 && c < cols;
+    }
+
+    // --- Per-cell queries (out of bounds reads as solid wall) ---
+
+    public boolean isSolid(int r, int c) {
+        return !inBounds(r, c) || get(solid, r, c);
+    }
+
+    /** Empty floor or a speed ramp: the cells a boss may enter. */
+    public boolean isOpen(int r, int c) {
+        return inBounds(r, c) && get(open, r, c);
+    }
+
+    public boolean isRamp(int r, int c) {
+        return inBounds(r, c) && get(ramp, r, c);
+    }
+
+    public boolean hasDisc(int r, int c) {
+        return inBounds(r, c) && get(disc, r, c);
+    }
+
+    public boolean hasTrail(int r, int c) {
+        return inBounds(r, c) && get(anyTrail, r, c);
+    }
+
+    /** True when (r, c) holds the trail of the given symbol (see {@link #TRAIL_SYMBOLS}). */
+    public boolean hasTrail(char owner, int r, int c) {
+        int i = TRAIL_SYMBOLS.indexOf(owner);
+        return i >= 0 && inBounds(r, c) && get(trails[i], r, c);
+    }
+
+    // --- Line of sight ---
+
+    /** No wall or obstacle in row r from column c0 to c1 inclusive (c0 &gt; c1 is an empty range). */
+    public boolean isRowClear(int r, int c0, int c1) {
+        if (r < 0 || r >= rows)
+            return false;
+        return !anyInRange(solid, r * stride, Math.max(0, c0), Math.min(cols - 1, c1));
+    }
+
+    /** No wall or obstacle in column c from row r0 to r1 inclusive (r0 &gt; r1 is an empty range). */
+    public boolean isColumnClear(int c, int r0, int r1) {
+        if (c < 0 || c >= cols)
+            return false;
+        return !anyInRange(solidByColumn, c * columnStride, Math.max(0, r0), Math.min(rows - 1, r1));
+    }
+
+    // Any bit set in [from, to] of the line starting at word base
+    private static boolean anyInRange(long[] plane, int base, int from, int to) {
+        if (from > to)
+            return false;
+        int first = from >>> 6;
+        int last = to >>> 6;
+        for (int w = first; w <= last; w++) {
+            long mask = -1L;
+            if (w == first)
+                mask &= -1L << (from & 63);
+            if (w == last)
+                mask &= -1L >>> (63 - (to & 63));
+            if ((plane[base + w] & mask) != 0)
+                return true;
+        }
+        return false;
+    }
+
+    // --- Word-parallel flood fill ---
+
+    public long[] newPlane() {
+        return new long[rows * stride];
+    }
+
+    public long[] openPlane() {
+        return open;
+    }
+
+    public long[] borderPlane() {
+        return border;
+    }
+
+    /** Every in-bounds cell; pass as the mask to grow into blocked cells too. */
+    public long[] insidePlane() {
+        return inside;
+    }
+
+    public void set(long[] plane, int r, int c) {
+        plane[r * stride + (c >>> 6)] |= 1L << c;
+    }
+
+    public boolean get(long[] plane, int r, int c) {
+        return (plane[r * stride + (c >>> 6)] & (1L << c)) != 0;
+    }
+
+    /**
+     * One breadth-first ring: next = cells 4-adjacent to frontier that are in
+     * mask and not yet visited. Adds next to visited and returns its size.
+     */
+    public int expand(long[] frontier, long[] visited, long[] next, long[] mask) {
+        if (stride == 1)
+            return expandNarrow(frontier, visited, next, mask);
+        int count = 0;
+        for (int r = 0; r < rows; r++) {
+            int base = r * stride;
+            for (int w = 0; w < stride; w++) {
+                int i = base + w;
+                long f = frontier[i];
+                // West and east neighbours, carrying across word boundaries
+                long grown = f | (f << 1) | (f >>> 1);
+                if (w > 0)
+                    grown |= frontier[i - 1] >>> 63;
+                if (w < stride - 1)
+                    grown |= frontier[i + 1] << 63;
+                if (r > 0)
+                    grown |= frontier[i - stride];
+                if (r < rows - 1)
+                    grown |= frontier[i + stride];
+                long n = grown & mask[i] & ~visited[i];
+                next[i] = n;
+                visited[i] |= n;
+                count += Long.bitCount(n);
+            }
+        }
+        return count;
+    }
+
+    // Up to 64 columns: one word per row, so the rows above and below slide along
+    private int expandNarrow(long[] frontier, long[] visited, long[] next, long[] mask) {
+        int count = 0;
+        long above = 0L;
+        long here = frontier[0];
+        for (int r = 0; r < rows; r++) {
+            long below = (r < rows - 1) ? frontier[r + 1] : 0L;
+            long n = (here | (here << 1) | (here >>> 1) | above | below) & mask[r] & ~visited[r];
+            next[r] = n;
+            visited[r] |= n;
+            count += Long.bitCount(n);
+            above = here;
+            here = below;
+        }
+        return count;
+    }
+
+    /** Write the cell indices (r * cols + c) of the plane's set bits to out; returns how many. */
+    public int cellsOf(long[] plane, int[] out) {
+        int n = 0;
+        for (int r = 0; r < rows; r++) {
+            int base = r * stride;
+            for (int w = 0; w < stride; w++) {
+                long x = plane[base + w];
+                while (x != 0) {
+                    out[n++] = r * cols + (w << 6) + Long.numberOfTrailingZeros(x);
+                    x &= x - 1;
+                }
+            }
+        }
+        return n;
+    }
+}
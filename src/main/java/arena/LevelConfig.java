@@ -1,12 +1,12 @@
 package arena;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 public class LevelConfig {
     public int enemyCount;
-    // Map of Enemy Type -> Count (e.g., "Clu" -> 4)
-    public Map<String, Integer> enemyTypes = new HashMap<>();
+    // Map of Enemy Type -> Count (e.g., "Clu" -> 4); insertion order keeps seeded spawns stable
+    public Map<String, Integer> enemyTypes = new LinkedHashMap<>();
     public boolean hasBoss;
     public String bossName;
 
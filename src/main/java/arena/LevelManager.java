@@ -11,8 +11,32 @@ public class LevelManager {
     private static Random rand = new Random();
 
     public static List<Character> loadStage(int chapter, int stage, char[][] grid) {
+        return loadStage(chapter, stage, grid, rand);
+    }
+
+    // Same as above but with the caller's Random, so independent runs (batch
+    // simulations) neither share nor contend on one generator
+    public static List<Character> loadStage(int chapter, int stage, char[][] grid, Random rand) {
+        return loadStage(chapter, getLevelConfig(chapter, stage), grid, rand);
+    }
+
+    // Spawn from an explicit config (replays carry the config they were recorded with)
+    public static List<Character> loadStage(int chapter, LevelConfig config, char[][] grid, Random rand) {
+        return loadStage(chapter, config, grid, ArenaGenerator.findSpawnCells(grid), rand);
+    }
+
+    // Arena overloads: spawn from the arena's precomputed spawn cells
+    public static List<Character> loadStage(int chapter, int stage, Arena arena, Random rand) {
+        return loadStage(chapter, getLevelConfig(chapter, stage), arena, rand);
+    }
+
+    public static List<Character> loadStage(int chapter, LevelConfig config, Arena arena, Random rand) {
+        return loadStage(chapter, config, arena.getGrid(), arena.getSpawnCells(), rand);
+    }
+
+    private static List<Character> loadStage(int chapter, LevelConfig config, char[][] grid, int[] spawnCells,
+            Random rand) {
         List<Character> enemies = new ArrayList<>();
-        LevelConfig config = getLevelConfig(chapter, stage);
 
         if (config != null) {
             // 1. SPAWN MINIONS
@@ -83,9 +107,11 @@ public class LevelManager {
                         enemy.setAggression(aggression);
                         enemy.setMoveDelayMs(delayMs); // new time-based scheduling
                         enemy.setTrailDuration(trail);
+                        if (stats != null)
+                            enemy.setStrategy(EnemyStrategy.create(stats.getTierStrategy(tier)));
 
                         enemy.setArenaGrid(grid);
-                        enemy.spawnRandom(40, 40);
+                        enemy.spawnAt(spawnCells, rand);
                         enemies.add(enemy);
                     }
                 }
@@ -121,9 +147,11 @@ public class LevelManager {
                     boss.setAggression(aggression);
                     boss.setMoveDelayMs(delayMs);
                     boss.setTrailDuration(trail);
+                    if (stats != null)
+                        boss.setStrategy(EnemyStrategy.create(stats.getTierStrategy(tier)));
 
                     boss.setArenaGrid(grid);
-                    boss.spawnRandom(40, 40);
+                    boss.spawnAt(spawnCells, rand);
                     enemies.add(boss);
                 }
             }
@@ -141,7 +169,7 @@ public class LevelManager {
         };
     }
 
-    private static LevelConfig getLevelConfig(int chapter, int stage) {
+    public static LevelConfig getLevelConfig(int chapter, int stage) {
         LevelConfig config = new LevelConfig();
 
         // CHAPTER 1: All Clu Minions
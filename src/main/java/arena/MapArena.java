@@ -0,0 +1,21 @@
+package arena;
+
+/** An arena whose layout comes from a map file (see {@link ArenaTemplate}). */
+public class MapArena extends Arena {
+
+    private final String mapId;
+
+    public MapArena(ArenaTemplate template) {
+        super(template);
+        this.mapId = template.getId();
+    }
+
+    public String getMapId() {
+        return mapId;
+    }
+
+    @Override
+    protected void designArena() {
+        // Never called: the base constructor copies the template instead
+    }
+}
@@ -0,0 +1,57 @@
+package arena;
+
+import java.util.Random;
+
+/**
+ * One seed per match from which every subsystem derives its own independent
+ * Random stream (arena layout, stage composition, each cycle's handling/AI
+ * rolls). Streams are keyed by name and index, so adding a draw in one
+ * subsystem never shifts the numbers another one sees. Two matches with the
+ * same seed and the same inputs produce identical grids.
+ */
+public final class MatchSeed {
+
+    public static final String ARENA = "arena";
+    public static final String LEVEL = "level";
+    public static final String CYCLE = "cycle";
+    public static final String PLAYER_BOT = "bot";
+
+    private final long seed;
+
+    public MatchSeed(long seed) {
+        this.seed = seed;
+    }
+
+    // Fresh seed for interactive play; logged so a session can be reproduced
+    public static MatchSeed random() {
+        return new MatchSeed(mix(System.nanoTime() ^ Double.doubleToLongBits(Math.random())));
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long streamSeed(String name, int index) {
+        return mix(seed ^ mix(name.hashCode() * 0x9E3779B97F4A7C15L + index));
+    }
+
+    public Random stream(String name) {
+        return new Random(streamSeed(name, 0));
+    }
+
+    public Random stream(String name, int index) {
+        return new Random(streamSeed(name, index));
+    }
+
+    // SplitMix64 finalizer
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(seed);
+    }
+}
@@ -0,0 +1,120 @@
+package arena;
+
+import java.util.Arrays;
+
+import characters.Character;
+
+/**
+ * O(1) "who is standing on (r, c)" index for light cycles. Each registered
+ * cycle gets a small id; the grid stores id + 1 per cell (0 = empty). Kept in
+ * sync by Character.advancePosition and by the spawn/removal paths in
+ * GameController.
+ */
+public class OccupancyGrid {
+    private final int rows;
+    private final int cols;
+    private final short[] cells;
+    // Number of cycles on each cell (spawns may overlap)
+    private final byte[] counts;
+    private Character[] byId = new Character[16];
+    private int nextId = 0;
+
+    public OccupancyGrid(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.cells = new short[rows * cols];
+        this.counts = new byte[rows * cols];
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public boolean inBounds(int r, int c) {
+        return r >= 0 && r < rows && c >= 0 && c < cols;
+    }
+
+    public void clear() {
+        Arrays.fill(cells, (short) 0);
+        Arrays.fill(counts, (byte) 0);
+        for (int i = 0; i < nextId; i++) {
+            if (byId[i] != null)
+                byId[i].setOccupancy(null, -1);
+            byId[i] = null;
+        }
+        nextId = 0;
+    }
+
+    /** Register a cycle at its current position. */
+    public void add(Character ch) {
+        if (nextId == byId.length)
+            byId = Arrays.copyOf(byId, byId.length * 2);
+        int id = nextId++;
+        byId[id] = ch;
+        ch.setOccupancy(this, id);
+        place(ch.getRow(), ch.getCol(), id);
+    }
+
+    /** Unregister a cycle (death/removal). */
+    public void remove(Character ch) {
+        int id = ch.getOccupancyId();
+        if (ch.getOccupancy() != this || id < 0)
+            return;
+        vacate(ch.getRow(), ch.getCol(), id);
+        byId[id] = null;
+        ch.setOccupancy(null, -1);
+    }
+
+    /** Move a registered cycle from (oldR, oldC) to its current position. */
+    public void moved(Character ch, int oldR, int oldC) {
+        int id = ch.getOccupancyId();
+        if (id < 0)
+            return;
+        vacate(oldR, oldC, id);
+        place(ch.getRow(), ch.getCol(), id);
+    }
+
+    /** The cycle on (r, c), or null. On overlap the earliest registered wins. */
+    public Character at(int r, int c) {
+        if (r < 0 || r >= rows || c < 0 || c >= cols)
+            return null;
+        int v = cells[r * cols + c];
+        return v == 0 ? null : byId[v - 1];
+    }
+
+    private void place(int r, int c, int id) {
+        if (r < 0 || r >= rows || c < 0 || c >= cols)
+            return;
+        int idx = r * cols + c;
+        int v = cells[idx];
+        // Keep cycles-list order on overlap: the lowest id is reported
+        if (v == 0 || id < v - 1)
+            cells[idx] = (short) (id + 1);
+        counts[idx]++;
+    }
+
+    private void vacate(int r, int c, int id) {
+        if (r < 0 || r >= rows || c < 0 || c >= cols)
+            return;
+        int idx = r * cols + c;
+        if (counts[idx] > 0)
+            counts[idx]--;
+        if (cells[idx] != id + 1)
+            return;
+        cells[idx] = 0;
+        if (counts[idx] == 0)
+            return;
+        // Rare: another cycle shares the cell, find it
+        for (int i = 0; i < nextId; i++) {
+            Character other = byId[i];
+            if (i != id && other != null && other.getRow() == r && other.getCol() == c) {
+                cells[idx] = (short) (i + 1);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package arena;
+
+import java.util.Arrays;
+
+/**
+ * Union-find over the open cells ('.' and 'S') of a grid: after
+ * {@link #label}, two open cells share a root exactly when a cycle can drive
+ * from one to the other. Buffers are sized once, so one instance can label
+ * many grids of the same size without allocating.
+ */
+final class OpenRegions {
+
+    private final int rows;
+    private final int cols;
+    // parent[i] == i for roots; -1 for blocked cells
+    private final int[] parent;
+    private final int[] size;
+    private int regions;
+    private int largestRoot = -1;
+
+    OpenRegions(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.parent = new int[rows * cols];
+        this.size = new int[rows * cols];
+    }
+
+    /** Group the open cells of grid into regions; returns how many there are. */
+    int label(char[][] grid) {
+        regions = 0;
+        // One pass in reading order. A cell with an open west neighbour joins
+        // that run's root directly; the north neighbour only needs a union when
+        // the north-west cell does not already link the two
+        for (int r = 0; r < rows; r++) {
+            char[] row = grid[r];
+            int base = r * cols;
+            int runRoot = -1;
+            for (int c = 0; c < cols; c++) {
+                int i = base + c;
+                if (!isOpen(row[c])) {
+                    parent[i] = -1;
+                    runRoot = -1;
+                    continue;
+                }
+                if (runRoot < 0) {
+                    parent[i] = i;
+                    size[i] = 1;
+                    regions++;
+                } else {
+                    parent[i] = runRoot;
+                    size[runRoot]++;
+                }
+                int north = i - cols;
+                if (r > 0 && parent[north] >= 0 && (runRoot < 0 || parent[north - 1] < 0))
+                    join(north, i);
+                runRoot = find(i);
+            }
+        }
+        largestRoot = -1;
+        for (int i = 0; i < parent.length; i++)
+            if (parent[i] == i && (largestRoot < 0 || size[i] > size[largestRoot]))
+                largestRoot = i;
+        return regions;
+    }
+
+    /** Root of the region holding open cell index i (r * cols + c), or -1 when blocked. */
+    int find(int i) {
+        if (parent[i] < 0)
+            return -1;
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]]; // path halving
+            i = parent[i];
+        }
+        return i;
+    }
+
+    /** Root of the biggest region, or -1 when the grid has no open cell. */
+    int largestRoot() {
+        return largestRoot;
+    }
+
+    int largestSize() {
+        return largestRoot < 0 ? 0 : size[largestRoot];
+    }
+
+    int regionCount() {
+        return regions;
+    }
+
+    /**
+     * Cells a cycle may spawn on: empty floor ('.') off the border, inside
+     * the largest region. Returned as r * cols + c.
+     */
+    int[] spawnCells(char[][] grid) {
+        int[] out = new int[largestSize()];
+        int n = 0;
+        // With a single region every floor cell is in it, no lookups needed
+        boolean connected = regions == 1;
+        for (int r = 1; r < rows - 1; r++) {
+            char[] row = grid[r];
+            for (int c = 1; c < cols - 1; c++) {
+                int i = r * cols + c;
+                if (row[c] == '.' && (connected || find(i) == largestRoot))
+                    out[n++] = i;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /** Merge the regions of two open cells (e.g. after opening a wall between them). */
+    void join(int a, int b) {
+        int ra = find(a);
+        int rb = find(b);
+        if (ra == rb)
+            return;
+        if (size[ra] < size[rb]) {
+            int t = ra;
+            ra = rb;
+            rb = t;
+        }
+        parent[rb] = ra;
+        size[ra] += size[rb];
+        regions--;
+    }
+
+    private static boolean isOpen(char t) {
+        return t == '.' || t == 'S';
+    }
+}
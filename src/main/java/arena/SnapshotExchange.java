@@ -0,0 +1,82 @@
+package arena;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import characters.Character;
+
+/**
+ * Hands {@link WorldSnapshot}s from the game thread to the EDT. Three pooled
+ * buffers rotate between the writer's back buffer, the published (pending)
+ * slot and the reader's front buffer; the only shared state is two atomic
+ * references, so neither side ever blocks or copies on behalf of the other.
+ * A snapshot the renderer skipped passes its dirty cells on to the next one.
+ * One writer thread and one reader thread.
+ */
+public class SnapshotExchange {
+    private final int rows;
+    private final int cols;
+    private final AtomicReference<WorldSnapshot> pending = new AtomicReference<>();
+    // Front buffer the reader has finished with, waiting to be reused
+    private final AtomicReference<WorldSnapshot> released = new AtomicReference<>();
+
+    // Writer side
+    private WorldSnapshot back;
+    private int allocated = 0;
+    private long published = 0;
+
+    // Reader side
+    private WorldSnapshot front;
+
+    public SnapshotExchange(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    /** Game thread: capture the current state and make it the newest snapshot. */
+    public void publish(Arena arena, List<Character> cycles, long step) {
+        WorldSnapshot s = back;
+        back = null;
+        if (s == null)
+            s = released.getAndSet(null);
+        if (s == null) {
+            s = new WorldSnapshot(rows, cols);
+            allocated++;
+        }
+        s.capture(arena, cycles, step);
+        while (true) {
+            WorldSnapshot prev = pending.get();
+            if (prev != null)
+                s.mergeDirty(prev);
+            if (pending.compareAndSet(prev, s)) {
+                // Never seen by the reader, so it is ours to overwrite next time
+                back = prev;
+                break;
+            }
+        }
+        published++;
+    }
+
+    /**
+     * EDT: the newest snapshot published since the last call, or null when
+     * nothing new arrived. The snapshot returned by the previous call goes back
+     * to the pool and must not be read any more.
+     */
+    public WorldSnapshot take() {
+        WorldSnapshot s = pending.getAndSet(null);
+        if (s == null)
+            return null;
+        if (front != null)
+            released.compareAndSet(null, front);
+        front = s;
+        return s;
+    }
+
+    public int getAllocated() {
+        return allocated;
+    }
+
+    public long getPublished() {
+        return published;
+    }
+}
@@ -0,0 +1,290 @@
+package arena;
+
+import java.util.Arrays;
+import java.util.List;
+
+import characters.Character;
+import characters.Direction;
+import designenemies.Enemy;
+
+/**
+ * Frozen copy of everything the arena renderer draws for one tick: the grid
+ * as bytes, each light cycle's cell, previous cell, move progress, facing,
+ * HP and disc slots, the player's HUD stats, and the cells changed since the
+ * previous snapshot.
+ * Filled by the game thread and handed to the EDT through
+ * {@link SnapshotExchange}; once published it is never written again until
+ * the renderer gives it back, so the EDT can read it without locks or copies.
+ */
+public final class WorldSnapshot {
+
+    // Head styles (what ArenaView paints for a cycle)
+    public static final byte KIND_TRON = 0;
+    public static final byte KIND_PLAYER = 1;
+    public static final byte KIND_ENEMY = 2;
+    public static final byte KIND_BOSS = 3;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final int rows;
+    private final int cols;
+    private final byte[] grid;
+
+    // Cells changed since the snapshot before this one (r * cols + c)
+    private final int[] dirty;
+    private final boolean[] dirtyMarked;
+    private int dirtyCount;
+    private boolean fullRepaint;
+
+    // Per-cycle columns, index 0 is the player; grown on demand
+    private int entityCount;
+    private int[] row = new int[8];
+    private int[] col = new int[8];
+    private int[] prevRow = new int[8];
+    private int[] prevCol = new int[8];
+    private float[] progress = new float[8];
+    private byte[] direction = new byte[8];
+    private byte[] kind = new byte[8];
+    private float[] lives = new float[8];
+    private float[] maxLives = new float[8];
+    private int[] discs = new int[8];
+    private int[] discCapacity = new int[8];
+    private boolean[] stunned = new boolean[8];
+    private String[] imageBase = new String[8];
+
+    // Sidebar HUD stats of the player (cycle 0)
+    private String playerName;
+    private boolean playerControlled;
+    private int playerLevel;
+    private long playerXp;
+    private double playerSpeed;
+    private double playerHandling;
+
+    private Arena arena;
+    private long step;
+
+    WorldSnapshot(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.grid = new byte[rows * cols];
+        this.dirty = new int[rows * cols];
+        this.dirtyMarked = new boolean[rows * cols];
+    }
+
+    // Game thread: overwrite this (recycled) buffer with the current state
+    void capture(Arena arena, List<Character> cycles, long step) {
+        this.arena = arena;
+        this.step = step;
+        char[][] g = arena.getGrid();
+        for (int r = 0; r < rows; r++) {
+            char[] line = g[r];
+            int base = r * cols;
+            for (int c = 0; c < cols; c++)
+                grid[base + c] = (byte) line[c];
+        }
+
+        clearDirty();
+        int n = arena.getDirtyCells().drainTo(dirty);
+        if (n < 0) {
+            fullRepaint = true;
+        } else {
+            dirtyCount = n;
+            for (int i = 0; i < n; i++)
+                dirtyMarked[dirty[i]] = true;
+        }
+
+        int count = cycles.size();
+        ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            Character ch = cycles.get(i);
+            row[i] = ch.getRow();
+            col[i] = ch.getCol();
+            prevRow[i] = ch.getPrevRow();
+            prevCol[i] = ch.getPrevCol();
+            progress[i] = (float) ch.getMoveProgress();
+            direction[i] = (byte) ch.currentDirection.ordinal();
+            if ("Tron".equals(ch.name))
+                kind[i] = KIND_TRON;
+            else if (ch instanceof Enemy enemy)
+                kind[i] = enemy.isBoss() ? KIND_BOSS : KIND_ENEMY;
+            else
+                kind[i] = KIND_PLAYER;
+            lives[i] = (float) ch.getLives();
+            maxLives[i] = (float) ch.getMaxLives();
+            discs[i] = ch.currentDiscCount;
+            discCapacity[i] = ch.getDiscCapacity();
+            stunned[i] = ch.isStunned;
+            imageBase[i] = ch.imageBaseName;
+        }
+        for (int i = count; i < entityCount; i++)
+            imageBase[i] = null;
+        entityCount = count;
+
+        if (count > 0) {
+            Character player = cycles.get(0);
+            playerName = player.name;
+            playerControlled = player.isPlayer;
+            playerLevel = player.getLevel();
+            playerXp = player.getXp();
+            playerSpeed = player.getSpeed();
+            playerHandling = player.getHandling();
+        }
+    }
+
+    // Game thread: fold in the changes of an older snapshot the renderer never saw
+    void mergeDirty(WorldSnapshot older) {
+        if (fullRepaint)
+            return;
+        if (older.fullRepaint || older.arena != arena) {
+            fullRepaint = true;
+            return;
+        }
+        for (int i = 0; i < older.dirtyCount; i++) {
+            int idx = older.dirty[i];
+            if (!dirtyMarked[idx]) {
+                dirtyMarked[idx] = true;
+                dirty[dirtyCount++] = idx;
+            }
+        }
+    }
+
+    private void clearDirty() {
+        for (int i = 0; i < dirtyCount; i++)
+            dirtyMarked[dirty[i]] = false;
+        dirtyCount = 0;
+        fullRepaint = false;
+    }
+
+    private void ensureCapacity(int n) {
+        if (n <= row.length)
+            return;
+        int size = Math.max(n, row.length * 2);
+        row = Arrays.copyOf(row, size);
+        col = Arrays.copyOf(col, size);
+        prevRow = Arrays.copyOf(prevRow, size);
+        prevCol = Arrays.copyOf(prevCol, size);
+        progress = Arrays.copyOf(progress, size);
+        direction = Arrays.copyOf(direction, size);
+        kind = Arrays.copyOf(kind, size);
+        lives = Arrays.copyOf(lives, size);
+        maxLives = Arrays.copyOf(maxLives, size);
+        discs = Arrays.copyOf(discs, size);
+        discCapacity = Arrays.copyOf(discCapacity, size);
+        stunned = Arrays.copyOf(stunned, size);
+        imageBase = Arrays.copyOf(imageBase, size);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public char tile(int r, int c) {
+        return (char) (grid[r * cols + c] & 0xFF);
+    }
+
+    /** The arena this snapshot was taken from (identity only, never read by the renderer). */
+    public Arena getArena() {
+        return arena;
+    }
+
+    public long getStep() {
+        return step;
+    }
+
+    /** True when every cell has to be repainted instead of just {@link #getDirtyCell}s. */
+    public boolean isFullRepaint() {
+        return fullRepaint;
+    }
+
+    public int getDirtyCount() {
+        return dirtyCount;
+    }
+
+    public int getDirtyCell(int i) {
+        return dirty[i];
+    }
+
+    public int getEntityCount() {
+        return entityCount;
+    }
+
+    public int getRow(int i) {
+        return row[i];
+    }
+
+    public int getCol(int i) {
+        return col[i];
+    }
+
+    public int getPrevRow(int i) {
+        return prevRow[i];
+    }
+
+    public int getPrevCol(int i) {
+        return prevCol[i];
+    }
+
+    public float getProgress(int i) {
+        return progress[i];
+    }
+
+    public Direction getDirection(int i) {
+        return DIRECTIONS[direction[i]];
+    }
+
+    public byte getKind(int i) {
+        return kind[i];
+    }
+
+    public float getLives(int i) {
+        return lives[i];
+    }
+
+    public float getMaxLives(int i) {
+        return maxLives[i];
+    }
+
+    public int getDiscs(int i) {
+        return discs[i];
+    }
+
+    public int getDiscCapacity(int i) {
+        return discCapacity[i];
+    }
+
+    public boolean isStunned(int i) {
+        return stunned[i];
+    }
+
+    public String getImageBase(int i) {
+        return imageBase[i];
+    }
+
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    public boolean isPlayerControlled() {
+        return playerControlled;
+    }
+
+    public int getPlayerLevel() {
+        return playerLevel;
+    }
+
+    public long getPlayerXp() {
+        return playerXp;
+    }
+
+    public double getPlayerSpeed() {
+        return playerSpeed;
+    }
+
+    public double getPlayerHandling() {
+        return playerHandling;
+    }
+}
@@ -2,6 +2,8 @@ package characters;
 
 import XPSystem.TronRules;
 
+import java.util.Random;
+
 public abstract class Character {
     public int r;
     public int c;
@@ -33,6 +35,24 @@ public abstract class Character {
     protected double handling = 1.0;
     public int discsOwned;
 
+    // Movement rate for the fixed-timestep engine: cells per second, plus the
+    // fraction of the next move accumulated so far
+    protected double movesPerSecond = 4.0;
+    protected double moveProgress = 0.0;
+    // Cell this cycle came from on its last move, for interpolated rendering
+    protected int prevR;
+    protected int prevC;
+
+    // Arena occupancy index this cycle is registered in (null when off-grid)
+    private arena.OccupancyGrid occupancy;
+    private int occupancyId = -1;
+    // Receives log lines and achievements; the UI installs a Swing observer
+    private controller.GameObserver observer = controller.GameObserver.NONE;
+
+    // Handling rolls (and enemy AI choices); replaced with a match-seeded stream
+    // by GameSimulation so stages are reproducible
+    protected Random rand = new Random();
+
     // Pending turn requested by player input.
     protected char pendingDirection = '\0';
 
@@ -40,6 +60,10 @@ public abstract class Character {
         this.pendingDirection = java.lang.Character.toUpperCase(dir);
     }
 
+    public char getPendingDirection() {
+        return this.pendingDirection;
+    }
+
     public boolean tryApplyPendingDirection(char[][] grid) {
         if (this.pendingDirection == '\0')
             return false;
@@ -55,14 +79,14 @@ public abstract class Character {
             }
         }
         // out of bounds or blocked?
-        if (nextR < 0 || nextR >= 40 || nextC < 0 || nextC >= 40)
+        if (nextR < 0 || nextR >= grid.length || nextC < 0 || nextC >= grid[0].length)
             return false;
         char tile = grid[nextR][nextC];
         if (tile == '#' || tile == 'O' || tile == 'D' || tile == 'M')
             return false;
 
         // Decide if the player's handling allows the turn to be executed now
-        double roll = Math.random();
+        double roll = rand.nextDouble();
         if (roll < this.handling) {
             setDirection(this.pendingDirection);
             this.pendingDirection = '\0';
@@ -88,10 +112,8 @@ public abstract class Character {
         this.isStunned = false;
         this.tookDamage = false;
 
-        System.out
-                .println(name + " Ready for Stage. Discs: " + currentDiscCount + "/" + discCapacity + " HP: " + lives);
         if (this.isPlayer) {
-            arena.ArenaLoader.appendGameplayLog(
+            observer.onLog(
                     "Ready for Stage. Discs: " + currentDiscCount + "/" + discCapacity + " HP: " + lives);
         }
     }
@@ -209,7 +231,7 @@ public abstract class Character {
         if (level % 10 == 0) {
             this.maxLives += 1.0;
             this.lives = this.maxLives; // Heal to the new max immediately
-            System.out.println(">> MAX LIVES INCREASED! New Max: " + this.maxLives);
+            observer.onLog("Max lives increased! New max: " + this.maxLives);
         }
 
         // Removed noisy console print to reduce log spam on frequent level-ups
@@ -245,8 +267,7 @@ public abstract class Character {
         if (currentDiscCount > 0) {
             currentDiscCount--;
             if (this.isPlayer) {
-                arena.ArenaLoader
-                        .appendGameplayLog("Used a disc (Discs: " + currentDiscCount + "/" + discCapacity + ")");
+                observer.onLog("Used a disc (Discs: " + currentDiscCount + "/" + discCapacity + ")");
             }
         }
     }
@@ -255,8 +276,7 @@ public abstract class Character {
         if (currentDiscCount < discCapacity) {
             currentDiscCount++;
             if (this.isPlayer) {
-                arena.ArenaLoader
-                        .appendGameplayLog("Picked up a disc (Discs: " + currentDiscCount + "/" + discCapacity + ")");
+                observer.onLog("Picked up a disc (Discs: " + currentDiscCount + "/" + discCapacity + ")");
             }
         }
     }
@@ -352,7 +372,7 @@ public abstract class Character {
         // Append gameplay log for damage/heal
         if (amount < 0) {
             this.tookDamage = true;
-            arena.ArenaLoader.appendGameplayLog(this.name + " took " + String.format("%.1f", -amount) + " damage (HP: "
+            observer.onLog(this.name + " took " + String.format("%.1f", -amount) + " damage (HP: "
                     + String.format("%.1f", this.lives) + "/" + String.format("%.1f", this.maxLives) + ")");
         }
 
@@ -362,8 +382,8 @@ public abstract class Character {
             // CASE A: PLAYER DIED
             if (this.isPlayer) {
                 // [Icon 3] Learning the Hard Way
-                arena.ArenaLoader.unlockAchievement(3, "LEARNING THE HARD WAY", "Experience your first dead.");
-                arena.ArenaLoader.appendGameplayLog("Player died! Nooooo...");
+                observer.onAchievement(3, "LEARNING THE HARD WAY", "Experience your first dead.");
+                observer.onLog("Player died! Nooooo...");
 
                 // Calculate where the player was facing when they died
                 int nextR = this.r;
@@ -376,21 +396,20 @@ public abstract class Character {
                 }
 
                 // If that destination is OUT OF BOUNDS, they fell into the void!
-                if (nextR < 0 || nextR >= 40 || nextC < 0 || nextC >= 40) {
-                    arena.ArenaLoader.unlockAchievement(5, "INTO THE VOID", "Fall Outside the map.");
-                    System.out.println(">> ACHIEVEMENT: Fell into the void!");
-                    arena.ArenaLoader.appendGameplayLog("Fell into the void!");
+                if (occupancy != null && !occupancy.inBounds(nextR, nextC)) {
+                    observer.onAchievement(5, "INTO THE VOID", "Fall Outside the map.");
+                    observer.onLog("Fell into the void!");
                 }
 
             }
 
             // CASE B: ENEMY DIED (Clu, Sark, etc.)
             else {
-                arena.ArenaLoader.unlockAchievement(1, "FIRST BLOOD", "Defeat your very first enemy.");
-                arena.ArenaLoader.appendGameplayLog(this.name + " defeated.");
+                observer.onAchievement(1, "FIRST BLOOD", "Defeat your very first enemy.");
+                observer.onLog(this.name + " defeated.");
 
                 if (this.isBoss) {
-                    arena.ArenaLoader.unlockAchievement(4, "BOSS SLAYER", "Defeat a boss for the first time.");
+                    observer.onAchievement(4, "BOSS SLAYER", "Defeat a boss for the first time.");
                 }
             }
         }
@@ -430,6 +449,61 @@ public abstract class Character {
         }
     }
 
+    public double getMovesPerSecond() {
+        return this.movesPerSecond;
+    }
+
+    public void setMovesPerSecond(double movesPerSecond) {
+        this.movesPerSecond = Math.max(0.0, movesPerSecond);
+    }
+
+    public double getMoveProgress() {
+        return this.moveProgress;
+    }
+
+    public void setMoveProgress(double progress) {
+        this.moveProgress = progress;
+    }
+
+    public int getPrevRow() {
+        return this.prevR;
+    }
+
+    public int getPrevCol() {
+        return this.prevC;
+    }
+
+    // Forget the previous cell so the renderer draws the cycle exactly where it is
+    public void settle() {
+        this.prevR = this.r;
+        this.prevC = this.c;
+    }
+
+    public void setRandom(Random rand) {
+        this.rand = rand;
+    }
+
+    public void setObserver(controller.GameObserver observer) {
+        this.observer = (observer != null) ? observer : controller.GameObserver.NONE;
+    }
+
+    public controller.GameObserver getObserver() {
+        return this.observer;
+    }
+
+    public void setOccupancy(arena.OccupancyGrid occupancy, int id) {
+        this.occupancy = occupancy;
+        this.occupancyId = id;
+    }
+
+    public arena.OccupancyGrid getOccupancy() {
+        return this.occupancy;
+    }
+
+    public int getOccupancyId() {
+        return this.occupancyId;
+    }
+
     public void setOppositeDirection() {
         this.currentDirection = switch (this.currentDirection) {
             case NORTH -> Direction.SOUTH;
@@ -444,11 +518,17 @@ public abstract class Character {
             this.isStunned = false;
             return;
         }
+        int oldR = r;
+        int oldC = c;
+        prevR = oldR;
+        prevC = oldC;
         switch (this.currentDirection) {
             case NORTH -> r--;
             case SOUTH -> r++;
             case WEST -> c--;
             case EAST -> c++;
         }
+        if (occupancy != null)
+            occupancy.moved(this, oldR, oldC);
     }
 }
\ No newline at end of file
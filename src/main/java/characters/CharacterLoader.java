@@ -8,7 +8,7 @@ import java.io.IOException;
 
 public class CharacterLoader {
 
-    private static final String FILE_PATH = "data\\characters.txt";
+    private static final String FILE_PATH = "data/characters.txt";
 
     /**
      * Populate the target character with values from characters.txt.
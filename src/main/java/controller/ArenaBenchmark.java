@@ -0,0 +1,80 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import arena.ArenaGenerator;
+
+/**
+ * Measures how fast {@link ArenaGenerator} lays out maps: for every mode and
+ * grid size it generates layouts (connectivity pass and spawn list included)
+ * for a fixed time and prints maps/s, us/map and the average number of spawn
+ * cells. Each combination reuses one generator and grid, as a level loader
+ * would.
+ *
+ * Usage: ArenaBenchmark [--sizes 40,100,200,500] [--mode scatter|symmetric|maze]
+ * [--seconds SEC] [--seed S]
+ */
+public class ArenaBenchmark {
+
+    private int[] sizes = { 40, 100, 200, 500 };
+    private List<ArenaGenerator.Mode> modes = new ArrayList<>(List.of(ArenaGenerator.Mode.values()));
+    private double seconds = 1.0;
+    private long seed = 1L;
+
+    public static void main(String[] args) {
+        ArenaBenchmark bench = new ArenaBenchmark();
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            switch (a) {
+                case "--sizes" -> {
+                    String[] parts = args[++i].split(",");
+                    bench.sizes = new int[parts.length];
+                    for (int k = 0; k < parts.length; k++)
+                        bench.sizes[k] = Integer.parseInt(parts[k].trim());
+                }
+                case "--mode" -> bench.modes = List.of(ArenaGenerator.Mode.valueOf(args[++i].toUpperCase(Locale.ROOT)));
+                case "--seconds" -> bench.seconds = Double.parseDouble(args[++i]);
+                case "--seed" -> bench.seed = Long.parseLong(args[++i]);
+                default -> {
+                    System.err.println("Unknown argument: " + a);
+                    return;
+                }
+            }
+        }
+        bench.runAll();
+    }
+
+    private void runAll() {
+        System.out.println("mode,size,maps,maps_per_sec,us_per_map,spawn_cells");
+        for (ArenaGenerator.Mode mode : modes) {
+            for (int size : sizes) {
+                ArenaGenerator generator = new ArenaGenerator(size, size).setMode(mode);
+                char[][] grid = new char[size][size];
+                Random rand = new Random(seed);
+
+                // Warm up the JIT for a fifth of the run before timing
+                long warmupEnd = System.nanoTime() + (long) (seconds * 0.2e9);
+                while (System.nanoTime() < warmupEnd)
+                    generator.generate(rand, grid);
+
+                long maps = 0;
+                long spawnCells = 0;
+                long t0 = System.nanoTime();
+                long end = t0 + (long) (seconds * 1e9);
+                long now;
+                do {
+                    generator.generate(rand, grid);
+                    spawnCells += generator.getSpawnCells().length;
+                    maps++;
+                    now = System.nanoTime();
+                } while (now < end);
+                double elapsed = (now - t0) / 1e9;
+                System.out.println(String.format(Locale.ROOT, "%s,%d,%d,%.1f,%.1f,%d", mode.name().toLowerCase(Locale.ROOT),
+                        size, maps, maps / elapsed, elapsed * 1e6 / maps, spawnCells / maps));
+            }
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package controller;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import arena.Arena;
+import arena.ArenaGenerator;
+import arena.LevelManager;
+import arena.MatchSeed;
+import characters.Character;
+import characters.Direction;
+import characters.Kevin;
+import characters.Tron;
+import designenemies.MctsStats;
+import XPSystem.TronRules;
+
+/**
+ * Plays chapter/stage combinations headless, many times over, on a thread pool
+ * and streams one result row per run to CSV (or JSON lines when the output
+ * file ends in .json/.jsonl). Every run builds its own Arena, cycles and
+ * GameSimulation and takes its randomness from its own seed, so runs share no
+ * mutable state and scale with the number of cores.
+ *
+ * Usage: BatchRunner [--runs N] [--threads T] [--seed S] [--chapter C]
+ * [--stage S] [--player Tron|Kevin] [--max-seconds SEC] [--size N]
+ * [--mode scatter|symmetric|maze] [--out FILE] [--verbose]
+ *
+ * --size N plays every stage on an N x N random stress arena instead of the
+ * chapter's own; the summary's us/step column shows how a step scales with
+ * the grid. --mode picks the {@link ArenaGenerator} layout for that arena.
+ * --verbose prints every run's log lines, tagged with the run number.
+ */
+public class BatchRunner {
+
+    // One finished run
+    public static class RunResult {
+        public int run;
+        public int chapter;
+        public int stage;
+        public long seed;
+        public String outcome;
+        public double simSeconds;
+        public long steps;
+        public double damageTaken;
+        public int discsThrown;
+        public int enemiesLeft;
+        public double wallMs;
+        public MctsStats mcts;
+    }
+
+    private int runs = 100;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private long baseSeed = 1L;
+    private int onlyChapter = 0;
+    private int onlyStage = 0;
+    private String playerName = "Tron";
+    private double maxSeconds = 300.0;
+    private String outFile = "batch-results.csv";
+    private boolean verbose = false;
+    private int size = 0;
+    private ArenaGenerator.Mode mode = null;
+
+    public static void main(String[] args) throws Exception {
+        BatchRunner runner = new BatchRunner();
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            switch (a) {
+                case "--runs" -> runner.runs = Integer.parseInt(args[++i]);
+                case "--threads" -> runner.threads = Integer.parseInt(args[++i]);
+                case "--seed" -> runner.baseSeed = Long.parseLong(args[++i]);
+                case "--chapter" -> runner.onlyChapter = Integer.parseInt(args[++i]);
+                case "--stage" -> runner.onlyStage = Integer.parseInt(args[++i]);
+                case "--player" -> runner.playerName = args[++i];
+                case "--max-seconds" -> runner.maxSeconds = Double.parseDouble(args[++i]);
+                case "--out" -> runner.outFile = args[++i];
+                case "--size" -> runner.size = Integer.parseInt(args[++i]);
+                case "--mode" -> runner.mode = ArenaGenerator.Mode.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                case "--verbose" -> runner.verbose = true;
+                default -> {
+                    System.err.println("Unknown argument: " + a);
+                    return;
+                }
+            }
+        }
+        runner.runAll();
+    }
+
+    private void runAll() throws Exception {
+        List<int[]> stages = new ArrayList<>();
+        for (int ch = 1; ch <= 5; ch++) {
+            if (onlyChapter != 0 && ch != onlyChapter)
+                continue;
+            for (int st = 1; st <= TronRules.getStagesForChapter(ch); st++) {
+                if (onlyStage != 0 && st != onlyStage)
+                    continue;
+                stages.add(new int[] { ch, st });
+            }
+        }
+        if (stages.isEmpty()) {
+            System.err.println("No stages selected.");
+            return;
+        }
+
+        int total = runs * stages.size();
+        boolean json = outFile.endsWith(".json") || outFile.endsWith(".jsonl");
+        Summary[] summaries = new Summary[stages.size()];
+        for (int i = 0; i < summaries.length; i++)
+            summaries[i] = new Summary();
+
+        long startNs = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (PrintWriter out = new PrintWriter(new FileWriter(outFile))) {
+            ExecutorCompletionService<RunResult> done = new ExecutorCompletionService<>(pool);
+            for (int s = 0; s < stages.size(); s++) {
+                int[] cs = stages.get(s);
+                for (int r = 0; r < runs; r++) {
+                    int runIndex = s * runs + r;
+                    long seed = MatchSeed.mix(baseSeed + (runIndex + 1) * 0x9E3779B97F4A7C15L);
+                    done.submit(() -> runOne(runIndex, cs[0], cs[1], seed));
+                }
+            }
+
+            if (!json)
+                out.println("run,chapter,stage,seed,outcome,sim_seconds,steps,damage_taken,discs_thrown,enemies_left,wall_ms");
+            for (int i = 0; i < total; i++) {
+                Future<RunResult> f = done.take();
+                RunResult res = f.get();
+                out.println(json ? toJson(res) : toCsv(res));
+                summaries[res.run / runs].add(res);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        double elapsedS = (System.nanoTime() - startNs) / 1_000_000_000.0;
+
+        System.out.println(String.format(Locale.ROOT, "[BatchRunner] %d runs on %d threads in %.2f s (%.0f stages/min) -> %s",
+                total, threads, elapsedS, total / elapsedS * 60.0, outFile));
+        System.out.println("chapter,stage,runs,win_rate,avg_clear_s,avg_damage,avg_discs,us_per_step");
+        for (int s = 0; s < stages.size(); s++) {
+            Summary sum = summaries[s];
+            System.out.println(String.format(Locale.ROOT, "%d,%d,%d,%.3f,%.2f,%.2f,%.2f,%.2f", stages.get(s)[0],
+                    stages.get(s)[1], sum.count, sum.winRate(), sum.avgClearSeconds(), sum.avgDamage(),
+                    sum.avgDiscs(), sum.usPerStep()));
+        }
+        // MCTS rollout rates per stage, summed over that stage's runs
+        for (int s = 0; s < stages.size(); s++) {
+            MctsStats mcts = summaries[s].mcts;
+            if (mcts.getDecisions() > 0)
+                System.out.println("[BatchRunner] C" + stages.get(s)[0] + "S" + stages.get(s)[1] + " " + mcts.summary());
+        }
+    }
+
+    private RunResult runOne(int runIndex, int chapter, int stage, long seed) {
+        long t0 = System.nanoTime();
+        MatchSeed matchSeed = new MatchSeed(seed);
+
+        Arena arena;
+        if (size > 0)
+            arena = (mode != null) ? Arena.generated(size, size, mode, matchSeed) : Arena.stress(size, size, matchSeed);
+        else
+            arena = Arena.forChapter(chapter, matchSeed);
+        Character player = "Kevin".equalsIgnoreCase(playerName) ? new Kevin() : new Tron();
+        // Play each stage at the level a player is expected to have reached there
+        player.setXp(TronRules.getTotalXpForLevel(TronRules.getExpectedLevelForStage(chapter, stage)));
+        player.r = arena.getPlayerStartRow();
+        player.c = arena.getPlayerStartCol();
+        player.currentDirection = Direction.EAST;
+        player.prepareForNextStage();
+
+        List<Character> cycles = new ArrayList<>();
+        cycles.add(player);
+        cycles.addAll(LevelManager.loadStage(chapter, stage, arena, matchSeed.stream(MatchSeed.LEVEL)));
+
+        // Log lines reach stdout only when asked for: a shared synchronized stream would serialize the workers
+        GameObserver observer = verbose ? new GameObserver() {
+            @Override
+            public void onLog(String message) {
+                System.out.println("[run " + runIndex + "] " + message);
+            }
+        } : GameObserver.NONE;
+        GameSimulation sim = new GameSimulation(arena, cycles, observer, matchSeed);
+        ScriptedPlayer bot = new ScriptedPlayer(matchSeed.stream(MatchSeed.PLAYER_BOT));
+        long maxSteps = (long) (maxSeconds * 1_000_000_000.0 / GameSimulation.STEP_NS);
+        while (sim.getStepCount() < maxSteps) {
+            bot.drive(sim);
+            if (!sim.step())
+                break;
+        }
+
+        RunResult res = new RunResult();
+        res.run = runIndex;
+        res.chapter = chapter;
+        res.stage = stage;
+        res.seed = seed;
+        res.outcome = sim.isStageCleared() ? "clear" : sim.isPlayerDead() ? "dead" : "timeout";
+        res.simSeconds = sim.getSimTimeNs() / 1_000_000_000.0;
+        res.steps = sim.getStepCount();
+        res.damageTaken = sim.getPlayerDamageTaken();
+        res.discsThrown = sim.getPlayerDiscsThrown();
+        res.enemiesLeft = sim.getCycles().size() - 1;
+        res.wallMs = (System.nanoTime() - t0) / 1_000_000.0;
+        res.mcts = sim.getMctsStats();
+        return res;
+    }
+
+    private static String toCsv(RunResult r) {
+        return String.format(Locale.ROOT, "%d,%d,%d,%d,%s,%.2f,%d,%.1f,%d,%d,%.2f", r.run, r.chapter, r.stage, r.seed,
+                r.outcome, r.simSeconds, r.steps, r.damageTaken, r.discsThrown, r.enemiesLeft, r.wallMs);
+    }
+
+    private static String toJson(RunResult r) {
+        return String.format(Locale.ROOT,
+                "{\"run\":%d,\"chapter\":%d,\"stage\":%d,\"seed\":%d,\"outcome\":\"%s\",\"simSeconds\":%.2f,"
+                        + "\"steps\":%d,\"damageTaken\":%.1f,\"discsThrown\":%d,\"enemiesLeft\":%d,\"wallMs\":%.2f}",
+                r.run, r.chapter, r.stage, r.seed, r.outcome, r.simSeconds, r.steps, r.damageTaken, r.discsThrown,
+                r.enemiesLeft, r.wallMs);
+    }
+
+    // Per-stage aggregate; only touched by the collecting thread
+    private static class Summary {
+        int count;
+        int wins;
+        double clearSeconds;
+        double damage;
+        long discs;
+        long steps;
+        double wallMs;
+        final MctsStats mcts = new MctsStats();
+
+        void add(RunResult r) {
+            count++;
+            mcts.add(r.mcts);
+            steps += r.steps;
+            wallMs += r.wallMs;
+            damage += r.damageTaken;
+            discs += r.discsThrown;
+            if ("clear".equals(r.outcome)) {
+                wins++;
+                clearSeconds += r.simSeconds;
+            }
+        }
+
+        double winRate() {
+            return count == 0 ? 0.0 : (double) wins / count;
+        }
+
+        double avgClearSeconds() {
+            return wins == 0 ? 0.0 : clearSeconds / wins;
+        }
+
+        double avgDamage() {
+            return count == 0 ? 0.0 : damage / count;
+        }
+
+        double avgDiscs() {
+            return count == 0 ? 0.0 : (double) discs / count;
+        }
+
+        double usPerStep() {
+            return steps == 0 ? 0.0 : wallMs * 1000.0 / steps;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package controller;
+
+/**
+ * Everything the simulation reports to the outside world. The UI plugs in a
+ * {@link SwingGameObserver}; headless runs use {@link #NONE} or a
+ * {@link RecordingGameObserver}. All methods are called on the simulation
+ * thread and default to no-ops.
+ */
+public interface GameObserver {
+
+    GameObserver NONE = new GameObserver() {
+    };
+
+    default void onLog(String message) {
+    }
+
+    default void onAchievement(int index, String title, String description) {
+    }
+
+    // The player was hit by a disc (the UI flashes the log panel)
+    default void onPlayerHitByDisc() {
+    }
+
+    // The player's disc cooldown restarted; remainingNs is on the simulation clock
+    default void onDiscCooldown(long remainingNs) {
+    }
+
+    default void onPlayerDied() {
+    }
+
+    default void onStageCleared() {
+    }
+}
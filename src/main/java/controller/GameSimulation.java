@@ -0,0 +1,1167 @@
+package controller;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import arena.Arena;
+import arena.DirtyCells;
+import arena.OccupancyGrid;
+import arena.Disc;
+import arena.DiscStore;
+import arena.GridBits;
+import arena.MatchSeed;
+import characters.Character;
+import characters.Direction;
+import designenemies.AiFields;
+import designenemies.Enemy;
+import designenemies.EnemyStrategy;
+import designenemies.MctsStats;
+import designenemies.MctsStrategy;
+import designenemies.GridView;
+import designenemies.WanderStrategy;
+
+/**
+ * Swing-free rules and tick logic for one stage. Each {@link #step()} advances
+ * the world by one fixed {@link #STEP_NS} step; everything the outside world
+ * needs to hear about (log lines, achievements, stage end) goes through a
+ * {@link GameObserver}. GameController drives it in real time for the UI;
+ * {@link #runHeadless(long)} drives it at full CPU speed with no sleeps.
+ */
+public class GameSimulation {
+
+    private final Arena arena;
+    private final List<Character> cycles;
+    private final GameObserver observer;
+    private final MatchSeed seed;
+    private final Character playerCycle;
+    // Every grid write is recorded here so the renderer only repaints changed cells
+    private final DirtyCells dirty;
+    // O(1) cell -> cycle lookups for collisions
+    private final OccupancyGrid occupancy;
+
+    // Player invulnerability window after collision to prevent rapid repeat hits
+    private static final long PLAYER_IFRAME_NS = 900_000_000L; // 900 ms
+    private long playerInvulnerableUntilNs = 0L;
+
+    // Grid-indexed disc store; only touched from the game thread
+    private final DiscStore activeDiscs;
+    // Player inputs arrive from the EDT through a lock-free ring and are drained at
+    // the start of a step, so every input is tied to the exact step it took effect on
+    public static final char INPUT_THROW = ' ';
+    private static final int INPUT_CAPACITY = 64;
+    private final InputRing inputRing = new InputRing(INPUT_CAPACITY);
+    private final char[] drainedInputs = new char[INPUT_CAPACITY];
+    private final long[] drainedStamps = new long[INPUT_CAPACITY];
+    private InputListener inputListener;
+    private boolean playerThrowRequested = false;
+    private long throwStampNs = 0L;
+
+    // Turns waiting for the player's next moves; one is applied per move, oldest first
+    private static final int TURN_CAPACITY = 8;
+    private final char[] turnQueue = new char[TURN_CAPACITY];
+    private final long[] turnStamps = new long[TURN_CAPACITY];
+    private int turnHead = 0;
+    private int turnCount = 0;
+    private long pendingTurnStampNs = 0L;
+
+    // Enemy AI: strategies read the per-step grid snapshot through a read-only view
+    // and get a time budget per call. 0 = unlimited, which keeps headless runs deterministic; when
+    // a budget is set, an overrun puts that enemy on its cheap fallback for a while
+    // and is passed to the input listener as INPUT_AI_FALLBACK + spawn slot, so a
+    // replay applies the same fallback on the same step.
+    public static final char INPUT_AI_FALLBACK = 0x80;
+    private static final int AI_FALLBACK_MOVES = 25;
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean THREAD_CPU_CLOCK = THREADS.isCurrentThreadCpuTimeSupported()
+            && THREADS.isThreadCpuTimeEnabled();
+    private final GridView readView;
+    // Distance-to-player, distance-to-wall and disc danger, filled once per step
+    // before any decision and shared by every strategy through readView
+    private final AiFields aiFields = new AiFields();
+    private long aiBudgetNs = 0L;
+    private long aiOverruns = 0L;
+    private final MctsStats mctsStats = new MctsStats();
+
+    // Enemies due to move this step, decided together against readGrid (on the
+    // decision pool when one is set) and then committed one by one in cycles order
+    private static final int MIN_PARALLEL_DECISIONS = 2;
+    private Enemy[] dueEnemies = new Enemy[16];
+    private Direction[] decidedMoves = new Direction[16];
+    private EnemyStrategy[] decidedBy = new EnemyStrategy[16];
+    private boolean[] decisionOverran = new boolean[16];
+    private int dueCount = 0;
+    private ExecutorService decisionPool;
+    private int decisionThreads = 1;
+    private final List<Future<?>> decisionFutures = new ArrayList<>();
+
+    // Input-to-apply latency (wall clock from key press to the turn/throw taking effect)
+    private final LatencyHistogram applyLatency = new LatencyHistogram("input->apply");
+    // Optional: applied inputs are passed on (with their key-press stamp) so the
+    // UI can finish the measurement when the frame showing them is painted
+    private InputRing appliedInputs;
+
+    // Per-phase step timings; off unless a profiler is installed
+    private TickProfiler profiler = TickProfiler.DISABLED;
+    private boolean finished = false;
+    private boolean playerDead = false;
+    private boolean stageCleared = false;
+    private long stepCount = 0L;
+
+    // Per-stage statistics for headless balancing runs
+    private double playerDamageTaken = 0.0;
+    private int playerDiscsThrown = 0;
+
+    private boolean onSpeedRamp = false;
+    // Multiplier to amplify speed differences
+    private static final int SPEED_MULTIPLIER = 60; // tuned to make 0.5 vs 0.2 noticeably different
+    private static final int BASE_DELAY = 100; // Base speed in milliseconds
+    private static final int FAST_DELAY = 20;
+    private static final long DISC_COOLDOWN_NS = 5_000_000_000L;
+    private static final double COOLDOWN_BASE_S = 5.0;
+    private static final double COOLDOWN_STEP_S = 0.5; // reduce 0.5s every LEVEL_STEP levels
+    private static final int COOLDOWN_LEVEL_STEP = 10;
+
+    // Fixed simulation step: the world always advances in 10 ms increments
+    public static final long STEP_NS = 10_000_000L;
+    private static final double SIM_STEP_S = STEP_NS / 1_000_000_000.0;
+    // Speed ramps move anything on them at FAST_DELAY per cell
+    private static final double RAMP_MOVES_PER_SECOND = 1000.0 / FAST_DELAY;
+    // Discs used to advance two cells per BASE_DELAY tick
+    private static final double DISC_CELLS_PER_SECOND = 20.0;
+    private static final long ENEMY_BOUNCE_NS = 80_000_000L; // 80 ms
+
+    // Simulation clock (ns since stage start); i-frames and cooldowns use it
+    private long simTimeNs = 0L;
+    private double discMoveProgress = 0.0;
+    private final List<Character> deadEnemies = new ArrayList<>();
+
+    private int globalStepCounter = 1;
+    private static final int TRAIL_DURATION = 7;
+    private static final int DISC_THROW_DISTANCE = 5;
+
+    // Trail symbol -> decay duration in steps, fixed for the whole stage
+    private final int[] trailDurationBySymbol = new int[128];
+    // Pending trail expiries keyed by globalStepCounter
+    private final TrailDecayQueue trailDecay;
+    private final TrailDecayQueue.Expiry expireTrail = this::expireTrailCell;
+    private final int gridRows;
+    private final int gridCols;
+
+    public GameSimulation(Arena arena, List<Character> cycles, GameObserver observer) {
+        this(arena, cycles, observer, MatchSeed.random());
+    }
+
+    public GameSimulation(Arena arena, List<Character> cycles, GameObserver observer, MatchSeed seed) {
+        this.arena = arena;
+        this.cycles = cycles;
+        this.observer = (observer != null) ? observer : GameObserver.NONE;
+        this.seed = seed;
+        this.playerCycle = cycles.get(0);
+        this.playerCycle.isPlayer = true;
+        this.dirty = arena.getDirtyCells();
+        this.readView = new GridView(arena.snapshotGrid(), arena.getBits(), aiFields);
+        this.occupancy = arena.getOccupancy();
+        this.occupancy.clear();
+        for (int i = 0; i < cycles.size(); i++) {
+            Character ch = cycles.get(i);
+            // Each cycle rolls from its own stream, keyed by its slot in the stage
+            ch.setRandom(seed.stream(MatchSeed.CYCLE, i));
+            this.occupancy.add(ch);
+            ch.settle();
+            ch.setMoveProgress(0.0);
+            // Cooldowns are on this stage's simulation clock, which starts at zero
+            ch.setNextDiscReadyNs(0L);
+            ch.setObserver(this.observer);
+            if (ch instanceof Enemy enemy)
+                enemy.setTarget(this.playerCycle);
+        }
+        this.playerCycle.setMovesPerSecond(computePlayerMovesPerSecond());
+        // Drop a turn left over from the previous stage; only inputs fed through
+        // this simulation count (and get recorded)
+        this.playerCycle.requestDirection('\0');
+
+        // Set enemy disc capacity based on chapter (c1=1, c2=2, ...)
+        int enemyDiscCap = 1;
+        for (Character ch : cycles) {
+            if (ch instanceof Enemy enemy) {
+                enemy.setDiscCapacity(enemyDiscCap);
+                enemy.currentDiscCount = enemyDiscCap;
+            }
+        }
+
+        this.gridRows = arena.getRows();
+        this.gridCols = arena.getCols();
+        this.activeDiscs = new DiscStore(gridRows, gridCols);
+        int maxTrail = precomputeTrailDurations();
+        this.trailDecay = new TrailDecayQueue(maxTrail, globalStepCounter);
+    }
+
+    // Build the symbol -> duration table once per stage; returns the longest duration
+    private int precomputeTrailDurations() {
+        int playerDuration = playerCycle.getTrailDuration();
+        trailDurationBySymbol['T'] = playerDuration;
+        trailDurationBySymbol['K'] = playerDuration;
+        trailDurationBySymbol[playerCycle.getSymbol() & 0x7F] = playerDuration;
+        int max = Math.max(TRAIL_DURATION, playerDuration);
+        for (char symbol : new char[] { 'M', 'C', 'Y', 'G', 'R' }) {
+            int trailDuration = TRAIL_DURATION; // default
+            // Use the first enemy instance matching this trail char
+            for (Character cycle : cycles) {
+                if (!(cycle instanceof Enemy))
+                    continue;
+                Enemy enemy = (Enemy) cycle;
+                if (symbol == enemy.getTrailSymbol()) {
+                    trailDuration = enemy.getTrailDuration();
+                    break;
+                }
+                // fallback: if any boss exists, prefer boss trail duration
+                if (enemy.isBoss())
+                    trailDuration = Math.max(trailDuration, enemy.getTrailDuration());
+            }
+            trailDurationBySymbol[symbol] = trailDuration;
+            max = Math.max(max, trailDuration);
+        }
+        return max;
+    }
+
+    private int trailDurationFor(char symbol) {
+        int duration = trailDurationBySymbol[symbol & 0x7F];
+        return duration > 0 ? duration : TRAIL_DURATION;
+    }
+
+    // Player speed used to set the tick delay; it now maps to a move rate
+    private double computePlayerMovesPerSecond() {
+        double speedVal = playerCycle.getSpeed();
+        int speedAdjustment = (int) ((speedVal - 1.0) * SPEED_MULTIPLIER); // larger multiplier makes
+                                                                           // differences more perceptible
+        int dynamicDelay = BASE_DELAY - speedAdjustment;
+        if (dynamicDelay < 30)
+            dynamicDelay = 30; // Hard cap so it's never instant
+        return 1000.0 / dynamicDelay;
+    }
+
+    public Character getPlayer() {
+        return this.playerCycle;
+    }
+
+    public MatchSeed getSeed() {
+        return this.seed;
+    }
+
+    public Arena getArena() {
+        return this.arena;
+    }
+
+    public List<Character> getCycles() {
+        return this.cycles;
+    }
+
+    public DiscStore getDiscs() {
+        return this.activeDiscs;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public boolean isPlayerDead() {
+        return playerDead;
+    }
+
+    public boolean isStageCleared() {
+        return stageCleared;
+    }
+
+    public long getStepCount() {
+        return stepCount;
+    }
+
+    public long getSimTimeNs() {
+        return simTimeNs;
+    }
+
+    public double getPlayerDamageTaken() {
+        return playerDamageTaken;
+    }
+
+    public int getPlayerDiscsThrown() {
+        return playerDiscsThrown;
+    }
+
+    // Sees every player input together with the step it was applied on
+    public interface InputListener {
+        void onInput(long step, char input);
+    }
+
+    public void setInputListener(InputListener listener) {
+        this.inputListener = listener;
+    }
+
+    // Input (may be called from any thread; applied on the next step)
+    public void requestPlayerDirection(char dir) {
+        requestPlayerDirection(dir, System.nanoTime());
+    }
+
+    public void requestPlayerThrow() {
+        requestPlayerThrow(System.nanoTime());
+    }
+
+    // Same, stamped with when the input happened (System.nanoTime() clock), so
+    // latency includes any wait before the caller got to it (e.g. the EDT queue)
+    public void requestPlayerDirection(char dir, long stampNs) {
+        submitInput(java.lang.Character.toUpperCase(dir), stampNs);
+    }
+
+    public void requestPlayerThrow(long stampNs) {
+        submitInput(INPUT_THROW, stampNs);
+    }
+
+    private void submitInput(char input, long stampNs) {
+        inputRing.offer(input, stampNs);
+    }
+
+    // Pull everything the EDT queued since the last step, in arrival order
+    private void drainInputs() {
+        int n;
+        while ((n = inputRing.drainTo(drainedInputs, drainedStamps, INPUT_CAPACITY)) > 0) {
+            for (int i = 0; i < n; i++) {
+                char input = drainedInputs[i];
+                if (input == INPUT_THROW) {
+                    if (!playerThrowRequested)
+                        throwStampNs = drainedStamps[i];
+                    playerThrowRequested = true;
+                } else {
+                    queueTurn(input, drainedStamps[i]);
+                }
+                if (inputListener != null)
+                    inputListener.onInput(stepCount, input);
+            }
+        }
+    }
+
+    private void queueTurn(char dir, long stampNs) {
+        // Key auto-repeat sends the same direction over and over; keep only changes
+        char last;
+        if (turnCount > 0)
+            last = turnQueue[(turnHead + turnCount - 1) % TURN_CAPACITY];
+        else if (playerCycle.getPendingDirection() != '\0')
+            last = playerCycle.getPendingDirection();
+        else
+            last = keyFor(playerCycle.currentDirection);
+        if (dir == last)
+            return;
+        if (turnCount == TURN_CAPACITY) {
+            // Full: the oldest turn is the most stale one
+            turnHead = (turnHead + 1) % TURN_CAPACITY;
+            turnCount--;
+        }
+        int slot = (turnHead + turnCount) % TURN_CAPACITY;
+        turnQueue[slot] = dir;
+        turnStamps[slot] = stampNs;
+        turnCount++;
+    }
+
+    // Hand the next queued turn to the player right before it moves. A turn that
+    // could not be taken on the previous move is replaced by a newer one, if any.
+    private void feedNextTurn() {
+        if (turnCount == 0)
+            return;
+        playerCycle.requestDirection(turnQueue[turnHead]);
+        pendingTurnStampNs = turnStamps[turnHead];
+        turnHead = (turnHead + 1) % TURN_CAPACITY;
+        turnCount--;
+    }
+
+    private void recordInputLatency(char input, long stampNs) {
+        applyLatency.record(System.nanoTime() - stampNs);
+        if (appliedInputs != null)
+            appliedInputs.offer(input, stampNs);
+    }
+
+    /** Start publishing applied inputs; the returned ring is drained by one consumer. */
+    public InputRing trackAppliedInputs() {
+        if (appliedInputs == null)
+            appliedInputs = new InputRing(INPUT_CAPACITY);
+        return appliedInputs;
+    }
+
+    /** Per-call time budget for enemy strategies in ns (0 = unlimited). */
+    public void setAiBudgetNs(long budgetNs) {
+        this.aiBudgetNs = Math.max(0L, budgetNs);
+    }
+
+    public long getAiBudgetNs() {
+        return aiBudgetNs;
+    }
+
+    /** Rollout counters of this stage's MCTS decisions (read on the game thread or after it stopped). */
+    public MctsStats getMctsStats() {
+        return mctsStats;
+    }
+
+    public long getAiOverruns() {
+        return aiOverruns;
+    }
+
+    /**
+     * Decide enemy moves on the given pool, split across up to {@code threads}
+     * tasks (the game thread takes one share itself). Null decides inline. The
+     * pool only affects speed: each decision depends on the step's snapshot and
+     * that enemy's own state, and moves are committed in the same order either way.
+     */
+    public void setDecisionPool(ExecutorService pool, int threads) {
+        this.decisionPool = pool;
+        this.decisionThreads = Math.max(1, threads);
+    }
+
+    /**
+     * Put the enemy spawned in the given slot on its fallback strategy, as if its
+     * last decision had overrun the budget. Used by replays; call between steps.
+     */
+    public void suspendEnemyStrategy(int slot) {
+        for (Character c : cycles) {
+            if (c instanceof Enemy enemy && enemy.getOccupancyId() == slot) {
+                enemy.suspendStrategy(AI_FALLBACK_MOVES);
+                return;
+            }
+        }
+    }
+
+    public void setProfiler(TickProfiler profiler) {
+        this.profiler = (profiler != null) ? profiler : TickProfiler.DISABLED;
+    }
+
+    public TickProfiler getProfiler() {
+        return profiler;
+    }
+
+    public LatencyHistogram getApplyLatency() {
+        return applyLatency;
+    }
+
+    private static char keyFor(Direction d) {
+        return switch (d) {
+            case NORTH -> 'W';
+            case SOUTH -> 'S';
+            case WEST -> 'A';
+            case EAST -> 'D';
+        };
+    }
+
+    public long getInputLatencyCount() {
+        return applyLatency.getCount();
+    }
+
+    public double getAverageInputLatencyMs() {
+        return applyLatency.getMeanNs() / 1_000_000.0;
+    }
+
+    public double getMaxInputLatencyMs() {
+        return applyLatency.getMaxNs() / 1_000_000.0;
+    }
+
+    public long getDroppedInputs() {
+        return inputRing.getDropped();
+    }
+
+    /**
+     * Step the stage as fast as the CPU allows until it ends or maxSteps have
+     * run. Returns the number of steps taken.
+     */
+    public long runHeadless(long maxSteps) {
+        long steps = 0;
+        while (steps < maxSteps && step())
+            steps++;
+        return steps;
+    }
+
+    // Advance the world by one fixed step; returns false once the stage is over
+    public boolean step() {
+        if (finished)
+            return false;
+        long t0 = profiler.start();
+        boolean running = advance();
+        profiler.end(TickProfiler.STEP, t0);
+        return running;
+    }
+
+    private boolean advance() {
+        char[][] grid = arena.getGrid();
+        int[][] trailTimer = arena.getTrailTimer();
+        simTimeNs += STEP_NS;
+        stepCount++;
+        drainInputs();
+
+        if (playerThrowRequested) {
+            playerThrowRequested = false;
+            recordInputLatency(INPUT_THROW, throwStampNs);
+            attemptThrowDisc(this.playerCycle);
+        }
+
+        // Discs travel at a fixed velocity
+        discMoveProgress += DISC_CELLS_PER_SECOND * SIM_STEP_S;
+        while (discMoveProgress >= 1.0) {
+            discMoveProgress -= 1.0;
+            long t = profiler.start();
+            moveDiscs(grid, deadEnemies);
+            profiler.end(TickProfiler.MOVE_DISCS, t);
+        }
+
+        // Player moves at its own rate (faster while on a speed ramp)
+        double playerRate = onSpeedRamp ? RAMP_MOVES_PER_SECOND : playerCycle.getMovesPerSecond();
+        if (accumulateMove(playerCycle, playerRate)) {
+            feedNextTurn();
+            playerCycle.settle();
+            long t = profiler.start();
+            movePlayer(grid, trailTimer);
+            profiler.end(TickProfiler.MOVE_PLAYER, t);
+        }
+
+        // Enemies: throws and move timing first, in cycles order (indexed, so
+        // the step allocates no iterator)
+        dueCount = 0;
+        for (int i = 0, n = cycles.size(); i < n; i++) {
+            Character c = cycles.get(i);
+            if (c != playerCycle && c instanceof Enemy) {
+                Enemy enemy = (Enemy) c;
+
+                // Enemy disc throw: line-of-sight to player within throw distance and not on
+                // cooldown
+                long t = profiler.start();
+                tryEnemyThrow(enemy);
+                profiler.end(TickProfiler.ENEMY_THROW, t);
+
+                boolean onRamp = !isOutOfBounds(enemy.getRow(), enemy.getCol())
+                        && grid[enemy.getRow()][enemy.getCol()] == 'S';
+                if (accumulateMove(enemy, onRamp ? RAMP_MOVES_PER_SECOND : enemy.getMovesPerSecond()))
+                    addDueEnemy(enemy);
+            }
+        }
+
+        // Snapshot the grid so every due enemy decides against the same pre-commit
+        // view, decide them all (in parallel when a pool is set), then commit the
+        // moves serially in cycles order
+        if (dueCount > 0) {
+            long t = profiler.start();
+            char[][] readGrid = arena.snapshotGrid();
+            GridBits readBits = arena.snapshotBits();
+            profiler.end(TickProfiler.SNAPSHOT_GRID, t);
+
+            t = profiler.start();
+            computeAiFields(readBits);
+            profiler.end(TickProfiler.AI_FIELDS, t);
+
+            t = profiler.start();
+            decideDueEnemies();
+            profiler.end(TickProfiler.ENEMY_DECIDE, t);
+
+            for (int i = 0; i < dueCount; i++) {
+                Enemy enemy = dueEnemies[i];
+                if (decidedBy[i] instanceof MctsStrategy mcts)
+                    mctsStats.record(mcts);
+                if (decisionOverran[i])
+                    onAiOverrun(enemy, decidedBy[i]);
+                enemy.settle();
+                t = profiler.start();
+                processEnemyMove(enemy, decidedMoves[i], readGrid, grid, trailTimer, deadEnemies);
+                profiler.end(TickProfiler.ENEMY_MOVE, t);
+                dueEnemies[i] = null;
+                decidedBy[i] = null;
+            }
+        }
+
+        if (!deadEnemies.isEmpty()) {
+            for (Character dead : deadEnemies)
+                occupancy.remove(dead);
+            cycles.removeAll(deadEnemies);
+            deadEnemies.clear();
+        }
+
+        if (this.playerCycle.getLives() <= 0.0) {
+            finished = true;
+            playerDead = true;
+            observer.onPlayerDied();
+            return false;
+        }
+
+        // STAGE CLEAR
+        if (cycles.size() == 1 && cycles.get(0) == playerCycle) {
+            finished = true;
+            stageCleared = true;
+            observer.onStageCleared();
+        }
+
+        long t = profiler.start();
+        handleTrailDecay(grid, trailTimer);
+        profiler.end(TickProfiler.TRAIL_DECAY, t);
+        return !finished;
+    }
+
+    private void damagePlayer(double amount) {
+        playerDamageTaken += amount;
+        playerCycle.changeLives(-amount);
+    }
+
+    // Add one step's worth of movement; true when a whole cell move is due
+    private boolean accumulateMove(Character ch, double movesPerSecond) {
+        double progress = ch.getMoveProgress() + movesPerSecond * SIM_STEP_S;
+        if (progress < 1.0) {
+            ch.setMoveProgress(progress);
+            return false;
+        }
+        // Never bank more than one extra move
+        ch.setMoveProgress(Math.min(progress - 1.0, 1.0));
+        return true;
+    }
+
+    // Discs stop and persist when hitting a player/enemy; enemy deaths are staged
+    // in deadEnemies
+    private void moveDiscs(char[][] grid, List<Character> deadEnemies) {
+        for (int i = activeDiscs.size() - 1; i >= 0; i--) {
+            Disc disc = activeDiscs.get(i);
+
+            // Restore the tile the disc was previously occupying
+            if (!isOutOfBounds(disc.r, disc.c)) {
+                if (grid[disc.r][disc.c] == 'D' || grid[disc.r][disc.c] == 'E') {
+                    grid[disc.r][disc.c] = disc.getOriginalTile();
+                    dirty.mark(disc.r, disc.c);
+                }
+            }
+
+            // Check if disc has already traveled max distance BEFORE moving again
+            boolean stopFlying = disc.distanceTraveled >= DISC_THROW_DISTANCE;
+            boolean collided = false;
+
+            if (!stopFlying) {
+                int nextR = disc.r;
+                int nextC = disc.c;
+
+                // Movement
+                switch (disc.dir) {
+                    case NORTH -> nextR--;
+                    case SOUTH -> nextR++;
+                    case EAST -> nextC++;
+                    case WEST -> nextC--;
+                }
+
+                // Bounds / walls
+                if (isOutOfBounds(nextR, nextC)) {
+                    stopFlying = true;
+                } else if (grid[nextR][nextC] == '#' || grid[nextR][nextC] == 'O') {
+                    stopFlying = true;
+                } else {
+                    // Body collision check (player or enemy bodies are tracked in the occupancy index, not grid)
+                    Character hit = occupancy.at(nextR, nextC);
+                    if (hit != null) {
+                        long now = simTimeNs;
+                        if (hit.isPlayer) {
+                            if (disc.owner != null && !disc.owner.isPlayer && now >= playerInvulnerableUntilNs) {
+                                damagePlayer(1.0);
+                                playerCycle.setStunned(true);
+                                playerInvulnerableUntilNs = now + PLAYER_IFRAME_NS;
+                            }
+                        } else if (hit instanceof Enemy enemyHit) {
+                            if (disc.owner != null && disc.owner.isPlayer) {
+                                enemyHit.changeLives(-1.0);
+                                if (enemyHit.getLives() <= 0) {
+                                    deadEnemies.add(enemyHit);
+                                    restoreBaseTile(grid, enemyHit.getRow(), enemyHit.getCol());
+                                }
+                            }
+                        }
+
+                        // Land the disc on the collision cell and freeze further movement
+                        collided = true;
+                        stopFlying = true;
+                        activeDiscs.moveTo(disc, nextR, nextC);
+                        disc.setOriginalTile(grid[nextR][nextC]);
+                        disc.distanceTraveled = DISC_THROW_DISTANCE; // cap so it won't advance again
+                    } else {
+                        // No collision: move forward
+                        activeDiscs.moveTo(disc, nextR, nextC);
+                        disc.distanceTraveled++;
+                        disc.setOriginalTile(grid[nextR][nextC]);
+                    }
+                }
+            }
+
+            // Keep disc visible as 'D' (player) or 'E' (enemy) while active
+            char discChar = (disc.owner != null && !disc.owner.isPlayer) ? 'E' : 'D';
+            grid[disc.r][disc.c] = discChar;
+            dirty.mark(disc.r, disc.c);
+        }
+    }
+
+    // Shared AI fields against the snapshot the decisions will read: BFS distances
+    // from the player's head and from the nearest blocked cell, plus the cells
+    // flying player discs will cross
+    private void computeAiFields(GridBits readBits) {
+        aiFields.compute(readBits, playerCycle.getRow(), playerCycle.getCol(), playerCycle.getLives() > 0, stepCount);
+        for (int i = 0; i < activeDiscs.size(); i++) {
+            Disc disc = activeDiscs.get(i);
+            if (disc.isActive && disc.owner != null && disc.owner.isPlayer
+                    && disc.distanceTraveled < DISC_THROW_DISTANCE)
+                aiFields.addDiscPath(readBits, disc.r, disc.c, disc.dir, DISC_THROW_DISTANCE - disc.distanceTraveled);
+        }
+    }
+
+    private void addDueEnemy(Enemy enemy) {
+        if (dueCount == dueEnemies.length) {
+            int size = dueCount * 2;
+            dueEnemies = Arrays.copyOf(dueEnemies, size);
+            decidedMoves = Arrays.copyOf(decidedMoves, size);
+            decidedBy = Arrays.copyOf(decidedBy, size);
+            decisionOverran = Arrays.copyOf(decisionOverran, size);
+        }
+        dueEnemies[dueCount++] = enemy;
+    }
+
+    private void decideDueEnemies() {
+        int tasks = Math.min(decisionThreads, dueCount);
+        if (decisionPool == null || tasks < MIN_PARALLEL_DECISIONS) {
+            decideShare(0, 1);
+            return;
+        }
+        // Share k takes every tasks-th enemy starting at k; the game thread runs share 0
+        for (int k = 1; k < tasks; k++) {
+            final int share = k;
+            decisionFutures.add(decisionPool.submit(() -> decideShare(share, tasks)));
+        }
+        try {
+            decideShare(0, tasks);
+            for (Future<?> f : decisionFutures)
+                f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while deciding enemy moves", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Enemy decision failed", e.getCause());
+        } finally {
+            decisionFutures.clear();
+        }
+    }
+
+    // Reads only the snapshot, the player and each enemy's own state; runs on any thread
+    private void decideShare(int first, int stride) {
+        for (int i = first; i < dueCount; i += stride) {
+            Enemy enemy = dueEnemies[i];
+            EnemyStrategy strategy = enemy.nextStrategy();
+            long decideStart = (aiBudgetNs > 0) ? decisionClock() : 0L;
+            decidedMoves[i] = strategy.decide(enemy, readView, aiBudgetNs);
+            decidedBy[i] = strategy;
+            decisionOverran[i] = aiBudgetNs > 0 && !(strategy instanceof WanderStrategy)
+                    && decisionClock() - decideStart > aiBudgetNs;
+        }
+    }
+
+    // CPU time of the deciding thread where the JVM offers it, so a thread that
+    // is preempted mid-decision is not blamed for the time it spent descheduled
+    private static long decisionClock() {
+        return THREAD_CPU_CLOCK ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    private void onAiOverrun(Enemy enemy, EnemyStrategy strategy) {
+        aiOverruns++;
+        enemy.suspendStrategy(AI_FALLBACK_MOVES);
+        observer.onLog("Enemy " + enemy.getName() + " " + strategy.getName() + " overran its AI budget; falling back for "
+                + AI_FALLBACK_MOVES + " moves");
+        // Takes effect from the next step on, so that is the step it is recorded for
+        int slot = enemy.getOccupancyId();
+        if (inputListener != null && slot >= 0 && slot < 0x80)
+            inputListener.onInput(stepCount + 1, (char) (INPUT_AI_FALLBACK + slot));
+    }
+
+    // Called once the enemy's move accumulator says a move is due
+    private void processEnemyMove(Enemy enemy, Direction nextMove, char[][] readGrid, char[][] grid,
+            int[][] trailTimer, List<Character> deadEnemies) {
+        int nextR = enemy.getRow();
+        int nextC = enemy.getCol();
+        switch (nextMove) {
+            case NORTH -> nextR--;
+            case SOUTH -> nextR++;
+            case EAST -> nextC++;
+            case WEST -> nextC--;
+        }
+
+        boolean wallHit = false;
+        boolean hitDisc = false;
+        boolean blockedByOtherEnemy = false;
+        Disc discAtTarget = null;
+
+        if (isOutOfBounds(nextR, nextC)) {
+            // Out-of-bounds => instant death (mirror player behavior)
+            enemy.changeLives(-enemy.getLives());
+            deadEnemies.add(enemy);
+            if (!isOutOfBounds(enemy.getRow(), enemy.getCol()))
+                restoreBaseTile(grid, enemy.getRow(), enemy.getCol());
+            return;
+        } else {
+            // Occupied by another enemy
+            Character other = occupancy.at(nextR, nextC);
+            if (other != null && other != enemy && other instanceof Enemy) {
+                blockedByOtherEnemy = true;
+                wallHit = true;
+            }
+
+            if (!blockedByOtherEnemy) {
+                char tile = readGrid[nextR][nextC];
+                if (tile == 'D' || tile == 'E')
+                    discAtTarget = activeDiscs.at(nextR, nextC);
+
+                if ((tile == 'D' || tile == 'E') && discAtTarget != null && discAtTarget.owner != null
+                        && discAtTarget.owner.isPlayer) {
+                    wallHit = true;
+                    hitDisc = true;
+                }
+
+                // Enemy steps into player (player head not stored in grid)
+                if (playerCycle.getRow() == nextR && playerCycle.getCol() == nextC) {
+                    long now = simTimeNs;
+                    if (now >= playerInvulnerableUntilNs) {
+                        damagePlayer(0.5);
+                        playerInvulnerableUntilNs = now + PLAYER_IFRAME_NS;
+                        playerCycle.isStunned = true;
+                    }
+                    enemy.changeLives(-0.5);
+                    if (enemy.getLives() <= 0) {
+                        deadEnemies.add(enemy);
+                        if (!isOutOfBounds(enemy.getRow(), enemy.getCol()))
+                            restoreBaseTile(grid, enemy.getRow(), enemy.getCol());
+                    } else {
+                        enemy.setOppositeDirection();
+                    }
+                    return; // handled collision
+                }
+
+                // Trails and walls
+                if (tile != '.' && tile != 'S' && tile != 'D' && tile != 'E') {
+                    char ownTrail = enemy.getTrailSymbol();
+                    if (tile == ownTrail) {
+                        // allow own trail
+                    } else if (isEnemyTrail(tile)) {
+                        blockedByOtherEnemy = true;
+                        wallHit = true;
+                    } else {
+                        wallHit = true;
+                    }
+                }
+
+                if (!wallHit && (tile == 'D' || tile == 'E') && discAtTarget != null && discAtTarget.owner != null
+                        && !discAtTarget.owner.isPlayer) {
+                    pickupDiscForEnemy(enemy, discAtTarget, grid);
+                }
+            }
+        }
+
+        if (wallHit) {
+            if (blockedByOtherEnemy) {
+                enemy.setOppositeDirection();
+            } else {
+                double dmg = hitDisc ? -1.0 : -0.5;
+                enemy.changeLives(dmg);
+                if (enemy.getLives() <= 0) {
+                    deadEnemies.add(enemy);
+                    if (!isOutOfBounds(enemy.getRow(), enemy.getCol())) {
+                        restoreBaseTile(grid, enemy.getRow(), enemy.getCol());
+                        observer.onLog(String.format("Restored base tile after enemy death at (%d,%d): %s",
+                                enemy.getRow(), enemy.getCol(), enemy.getName()));
+                    }
+                } else {
+                    enemy.setOppositeDirection();
+                }
+            }
+            // Retry shortly after a bounce instead of waiting a full move interval
+            double bounceProgress = 1.0 - Math.min(1.0, enemy.getMovesPerSecond() * ENEMY_BOUNCE_NS / 1e9);
+            enemy.setMoveProgress(Math.max(enemy.getMoveProgress(), bounceProgress));
+            return;
+        }
+
+        // Successful move
+        enemy.currentDirection = nextMove;
+        enemy.advancePosition(grid);
+        if (!isOutOfBounds(enemy.getRow(), enemy.getCol()) && grid[enemy.getRow()][enemy.getCol()] == 'S') {
+            observer.onLog("Enemy " + enemy.getName() + " hit speed ramp");
+        }
+        placeEnemyTrail(enemy, grid, trailTimer);
+    }
+
+    private void pickupDiscForEnemy(Enemy picker, Disc disc, char[][] grid) {
+        // Restore underlying tile
+        if (grid[disc.r][disc.c] == 'D' || grid[disc.r][disc.c] == 'E') {
+            grid[disc.r][disc.c] = disc.getOriginalTile();
+            dirty.mark(disc.r, disc.c);
+        }
+        activeDiscs.remove(disc);
+
+        // Choose recipient: prefer self if space, else first teammate with space
+        Enemy recipient = null;
+        if (picker.currentDiscCount < picker.getDiscCapacity()) {
+            recipient = picker;
+        } else {
+            for (Character ch : cycles) {
+                if (ch instanceof Enemy teammate) {
+                    if (teammate.currentDiscCount < teammate.getDiscCapacity()) {
+                        recipient = teammate;
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (recipient != null) {
+            recipient.pickupDisc();
+            observer.onLog("Enemy " + picker.getName() + " picked up a disc" +
+                    (recipient != picker ? " for " + recipient.getName() : ""));
+        }
+    }
+
+    private void movePlayer(char[][] grid, int[][] trailTimer) {
+        // Try to apply any pending player direction (handling-dependent)
+        try {
+            if (this.playerCycle.tryApplyPendingDirection(grid))
+                recordInputLatency(keyFor(this.playerCycle.currentDirection), pendingTurnStampNs);
+        } catch (Exception ignored) {
+        }
+
+        int futureR = this.playerCycle.r;
+        int futureC = this.playerCycle.c;
+        switch (this.playerCycle.currentDirection) {
+            case NORTH -> futureR--;
+            case SOUTH -> futureR++;
+            case EAST -> futureC++;
+            case WEST -> futureC--;
+        }
+        char element = ' ';
+        boolean collided = false;
+        boolean hitEnemyDisc = false;
+        Enemy collidedEnemy = null;
+        if (isOutOfBounds(futureR, futureC)) {
+            damagePlayer(this.playerCycle.getLives());
+            collided = true;
+        } else {
+            // Body collision: enemy already occupying the destination cell (player heads are
+            // tracked by the occupancy index, not written into the grid)
+            Character other = occupancy.at(futureR, futureC);
+            if (other != null && other != playerCycle) {
+                collided = true;
+                if (other instanceof Enemy enemyAtTarget)
+                    collidedEnemy = enemyAtTarget;
+            }
+            element = grid[futureR][futureC];
+            if (element == 'D' || element == 'E') {
+                Disc picked = activeDiscs.at(futureR, futureC);
+                if (picked != null && picked.owner != null && !picked.owner.isPlayer) {
+                    // Enemy disc damages player on contact, disc stays in place
+                    damagePlayer(1.0);
+                    observer.onPlayerHitByDisc();
+                    this.playerCycle.setStunned(true);
+                    hitEnemyDisc = true;
+                    collided = true;
+                    element = 'E';
+                } else {
+                    // Player disc or unknown disc: pick up
+                    this.playerCycle.pickupDisc();
+                    char base = arena.getBaseTile(futureR, futureC);
+                    char restore = (base != '\0') ? base : '.';
+                    grid[futureR][futureC] = restore;
+                    dirty.mark(futureR, futureC);
+                    element = restore;
+                    if (picked != null)
+                        activeDiscs.remove(picked);
+                }
+            }
+
+            // Allow stepping onto player's own trail/symbol (e.g., 'T' for Tron, 'K' for
+            // Kevin)
+            if (!hitEnemyDisc && element != '.' && element != 'S' && element != this.playerCycle.getSymbol())
+                collided = true;
+        }
+        if (collided) {
+            if (hitEnemyDisc) {
+                // Already applied enemy disc damage; stop movement without extra penalty
+                this.playerCycle.setOppositeDirection();
+            } else {
+                long now = simTimeNs;
+                if (now >= playerInvulnerableUntilNs) {
+                    damagePlayer(0.5);
+                    playerInvulnerableUntilNs = now + PLAYER_IFRAME_NS;
+                    if (this.playerCycle.getLives() > 0.0) {
+                        this.playerCycle.setOppositeDirection();
+                        this.playerCycle.isStunned = true;
+                    }
+                } else {
+                    // Ignore damage during i-frames; still bounce direction to avoid sticking
+                    this.playerCycle.setOppositeDirection();
+                }
+                // Apply reciprocal damage to the enemy the player walked into
+                if (collidedEnemy != null) {
+                    collidedEnemy.changeLives(-0.5);
+                    if (collidedEnemy.getLives() <= 0) {
+                        restoreBaseTile(grid, collidedEnemy.getRow(), collidedEnemy.getCol());
+                        occupancy.remove(collidedEnemy);
+                        cycles.remove(collidedEnemy);
+                    }
+                }
+            }
+        } else {
+            // Always lay trail (hide ramps while occupied); decay logic will restore base
+            // tile (including 'S') later
+            grid[this.playerCycle.r][this.playerCycle.c] = this.playerCycle.getSymbol();
+            dirty.mark(this.playerCycle.r, this.playerCycle.c);
+            trailTimer[this.playerCycle.r][this.playerCycle.c] = globalStepCounter;
+            trailDecay.schedule(this.playerCycle.r * gridCols + this.playerCycle.c, globalStepCounter,
+                    globalStepCounter + trailDurationFor(this.playerCycle.getSymbol()));
+            onSpeedRamp = (element == 'S');
+            if (onSpeedRamp && playerCycle.isPlayer) {
+                observer.onLog(
+                        "Entered speed ramp (SPD: " + String.format("%.2f", playerCycle.getSpeed()) + ")");
+            }
+            this.globalStepCounter++;
+            this.playerCycle.advancePosition(grid);
+        }
+    }
+
+    // Walls and obstacles only change at design time, so the arena's solid plane
+    // is current even between snapshots; one masked word test per line
+    private boolean hasLineOfSight(Character enemy, Character target) {
+        GridBits bits = arena.getBits();
+        if (enemy.getRow() == target.getRow()) {
+            int distance = Math.abs(enemy.getCol() - target.getCol());
+            if (distance > DISC_THROW_DISTANCE)
+                return false;
+            int start = Math.min(enemy.getCol(), target.getCol()) + 1;
+            int end = Math.max(enemy.getCol(), target.getCol()) - 1;
+            return bits.isRowClear(enemy.getRow(), start, end);
+        }
+        if (enemy.getCol() == target.getCol()) {
+            int distance = Math.abs(enemy.getRow() - target.getRow());
+            if (distance > DISC_THROW_DISTANCE)
+                return false;
+            int start = Math.min(enemy.getRow(), target.getRow()) + 1;
+            int end = Math.max(enemy.getRow(), target.getRow()) - 1;
+            return bits.isColumnClear(enemy.getCol(), start, end);
+        }
+        return false;
+    }
+
+    private void tryEnemyThrow(Enemy enemy) {
+        if (!enemy.hasDisc())
+            return;
+        long now = simTimeNs;
+        if (now < enemy.getNextDiscReadyNs())
+            return;
+        if (!hasLineOfSight(enemy, playerCycle))
+            return;
+        attemptThrowDisc(enemy);
+    }
+
+    private long computePlayerCooldownNs(Character thrower) {
+        if (thrower == null || !thrower.isPlayer)
+            return DISC_COOLDOWN_NS;
+        int level = thrower.getLevel();
+        int steps = Math.max(0, level / COOLDOWN_LEVEL_STEP);
+        double cooldownSeconds = COOLDOWN_BASE_S - (steps * COOLDOWN_STEP_S);
+        return (long) (cooldownSeconds * 1_000_000_000L);
+    }
+
+    private void publishDiscCooldown(Character thrower) {
+        observer.onDiscCooldown(thrower.getNextDiscReadyNs() - simTimeNs);
+    }
+
+    private void attemptThrowDisc(Character thrower) {
+        long now = simTimeNs;
+        if (now < thrower.getNextDiscReadyNs()) {
+            if (thrower.isPlayer)
+                publishDiscCooldown(thrower);
+            return;
+        }
+        if (!thrower.hasDisc())
+            return;
+
+        long cooldownNs = thrower.isPlayer ? computePlayerCooldownNs(thrower) : DISC_COOLDOWN_NS;
+        thrower.setNextDiscReadyNs(now + cooldownNs);
+        if (thrower.isPlayer)
+            publishDiscCooldown(thrower);
+
+        thrower.throwDisc();
+        Disc newDisc = new Disc(thrower, thrower.r, thrower.c, thrower.currentDirection, DISC_THROW_DISTANCE);
+        try {
+            char[][] gridRef = arena.getGrid();
+            if (!isOutOfBounds(thrower.r, thrower.c)) {
+                newDisc.setOriginalTile(gridRef[thrower.r][thrower.c]);
+                char discTile = (thrower instanceof Enemy) ? 'E' : 'D';
+                gridRef[thrower.r][thrower.c] = discTile;
+                dirty.mark(thrower.r, thrower.c);
+            }
+        } catch (Exception ex) {
+            // ignore
+        }
+        activeDiscs.add(newDisc);
+        if (thrower instanceof Enemy enemyThrower) {
+            observer.onLog("Enemy " + enemyThrower.getName() + " threw a disc");
+        } else if (thrower == playerCycle) {
+            playerDiscsThrown++;
+        }
+    }
+
+    // Only the trail cells that came due this step are visited
+    private void handleTrailDecay(char[][] grid, int[][] trailTimer) {
+        trailDecay.advanceTo(globalStepCounter, expireTrail);
+    }
+
+    private void expireTrailCell(int cell, int placementStep, int dueStep) {
+        char[][] grid = arena.getGrid();
+        int[][] trailTimer = arena.getTrailTimer();
+        int r = cell / gridCols;
+        int c = cell % gridCols;
+        // A newer trail was laid on this cell; its own entry will expire it
+        if (trailTimer[r][c] != placementStep)
+            return;
+        char currentElement = grid[r][c];
+        if (currentElement == 'D' || currentElement == 'E') {
+            // A disc is resting on the trail: retry once it has moved on
+            trailDecay.schedule(cell, placementStep, dueStep + 1);
+            return;
+        }
+        if (currentElement == 'T' || currentElement == 'K' || isEnemyTrail(currentElement)) {
+            // Restore design-time tile if present, otherwise clear
+            char base = arena.getBaseTile(r, c);
+            grid[r][c] = (base != '\0') ? base : '.';
+            trailTimer[r][c] = 0;
+            dirty.mark(r, c);
+        }
+    }
+
+    // --- Small helpers to keep the main loop readable ---
+    private boolean isOutOfBounds(int r, int c) {
+        return (r < 0 || r >= gridRows || c < 0 || c >= gridCols);
+    }
+
+    private boolean isEnemyTrail(char tile) {
+        return tile == 'M' || tile == 'C' || tile == 'Y' || tile == 'G' || tile == 'R';
+    }
+
+    private void restoreBaseTile(char[][] grid, int r, int c) {
+        char base = arena.getBaseTile(r, c);
+        grid[r][c] = (base != '.' && base != '\0') ? base : '.';
+        dirty.mark(r, c);
+    }
+
+    private void placeEnemyTrail(Enemy enemy, char[][] grid, int[][] trailTimer) {
+        int r = enemy.getRow();
+        int c = enemy.getCol();
+        if (isOutOfBounds(r, c))
+            return;
+        char trailChar = enemy.getTrailSymbol();
+        grid[r][c] = trailChar;
+        trailTimer[r][c] = globalStepCounter;
+        trailDecay.schedule(r * gridCols + c, globalStepCounter, globalStepCounter + trailDurationFor(trailChar));
+        dirty.mark(r, c);
+    }
+}
@@ -0,0 +1,70 @@
+package controller;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-producer/single-consumer ring of timestamped player inputs. The EDT
+ * offers key presses, the game thread drains them at the start of a step; no
+ * locks, and no allocation after construction. The producer publishes with
+ * a release store of the tail, the consumer frees slots the same way with
+ * the head, so each side only ever writes its own index.
+ */
+public class InputRing {
+
+    private final int mask;
+    private final char[] inputs;
+    private final long[] stamps;
+    // Next slot to read (written only by the consumer)
+    private final AtomicLong head = new AtomicLong();
+    // Next slot to write (written only by the producer)
+    private final AtomicLong tail = new AtomicLong();
+    // Producer-local cache of head, refreshed only when the ring looks full
+    private long cachedHead = 0;
+    private final AtomicLong dropped = new AtomicLong();
+
+    public InputRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+        this.mask = size - 1;
+        this.inputs = new char[size];
+        this.stamps = new long[size];
+    }
+
+    /** Producer side. Returns false (and counts a drop) when the ring is full. */
+    public boolean offer(char input, long timestampNs) {
+        long t = tail.get();
+        if (t - cachedHead > mask) {
+            cachedHead = head.get();
+            if (t - cachedHead > mask) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        }
+        int i = (int) (t & mask);
+        inputs[i] = input;
+        stamps[i] = timestampNs;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Consumer side. Copies up to max pending inputs (oldest first) into the
+     * given arrays and returns how many were copied.
+     */
+    public int drainTo(char[] outInputs, long[] outStamps, int max) {
+        long h = head.get();
+        long available = tail.get() - h;
+        int n = (int) Math.min(available, max);
+        for (int k = 0; k < n; k++) {
+            int i = (int) ((h + k) & mask);
+            outInputs[k] = inputs[i];
+            outStamps[k] = stamps[i];
+        }
+        if (n > 0)
+            head.lazySet(h + n);
+        return n;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,114 @@
+package controller;
+
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Fixed-bucket, log-linear histogram of nanosecond durations (HdrHistogram
+ * style): values below 32 ns get exact buckets, above that each power of two
+ * is split into 32 linear sub-buckets, so any reported percentile is within
+ * ~3% of the true value. Recording is a couple of shifts and an array
+ * increment, with no allocation. Methods are synchronized so one thread can
+ * record while another reads.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    // Largest tracked magnitude is 2^MAX_EXP ns (~18 minutes); larger values clamp
+    private static final int MAX_EXP = 40;
+    private static final int BUCKETS = SUB_COUNT * (MAX_EXP - SUB_BITS + 2);
+
+    private final String name;
+    private final long[] counts = new long[BUCKETS];
+    private long total = 0;
+    private long max = 0;
+    private double sum = 0.0;
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized void record(long valueNs) {
+        if (valueNs < 0)
+            valueNs = 0;
+        counts[indexFor(valueNs)]++;
+        total++;
+        sum += valueNs;
+        if (valueNs > max)
+            max = valueNs;
+    }
+
+    public synchronized void reset() {
+        Arrays.fill(counts, 0L);
+        total = 0;
+        max = 0;
+        sum = 0.0;
+    }
+
+    public synchronized long getCount() {
+        return total;
+    }
+
+    public synchronized long getMaxNs() {
+        return max;
+    }
+
+    public synchronized double getMeanNs() {
+        return total == 0 ? 0.0 : sum / total;
+    }
+
+    /** Upper bound of the bucket holding the p-th percentile (0..100). */
+    public synchronized long percentileNs(double p) {
+        if (total == 0)
+            return 0;
+        long target = Math.max(1, (long) Math.ceil(p / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target)
+                return Math.min(upperBound(i), max);
+        }
+        return max;
+    }
+
+    /** One line: count, p50/p95/p99 and max in milliseconds. */
+    public synchronized String summary() {
+        return String.format(Locale.ROOT, "%s: n=%d p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms", name, total,
+                percentileNs(50) / 1e6, percentileNs(95) / 1e6, percentileNs(99) / 1e6, max / 1e6);
+    }
+
+    /** Summary line followed by every non-empty bucket as "upper_ns,count". */
+    public synchronized void writeTo(PrintWriter out) {
+        out.println("# " + summary());
+        out.println("bucket_upper_ns,count");
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] != 0)
+                out.println(upperBound(i) + "," + counts[i]);
+        }
+    }
+
+    static int indexFor(long v) {
+        if (v < SUB_COUNT)
+            return (int) v;
+        int exp = 63 - Long.numberOfLeadingZeros(v);
+        if (exp > MAX_EXP)
+            return BUCKETS - 1;
+        int sub = (int) (v >>> (exp - SUB_BITS)) - SUB_COUNT;
+        return SUB_COUNT * (exp - SUB_BITS + 1) + sub;
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_COUNT)
+            return index;
+        int exp = index / SUB_COUNT - 1 + SUB_BITS;
+        int sub = index % SUB_COUNT;
+        long width = 1L << (exp - SUB_BITS);
+        return ((long) (SUB_COUNT + sub) << (exp - SUB_BITS)) + width - 1;
+    }
+}
@@ -0,0 +1,72 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects what happened during a headless stage: log lines (optional),
+ * achievement ids and the outcome. Not thread-safe; use one per simulation.
+ */
+public class RecordingGameObserver implements GameObserver {
+
+    private final boolean keepLog;
+    private final List<String> log = new ArrayList<>();
+    private final List<Integer> achievements = new ArrayList<>();
+    private int playerDiscHits = 0;
+    private boolean playerDied = false;
+    private boolean stageCleared = false;
+
+    public RecordingGameObserver() {
+        this(false);
+    }
+
+    public RecordingGameObserver(boolean keepLog) {
+        this.keepLog = keepLog;
+    }
+
+    @Override
+    public void onLog(String message) {
+        if (keepLog)
+            log.add(message);
+    }
+
+    @Override
+    public void onAchievement(int index, String title, String description) {
+        achievements.add(index);
+    }
+
+    @Override
+    public void onPlayerHitByDisc() {
+        playerDiscHits++;
+    }
+
+    @Override
+    public void onPlayerDied() {
+        playerDied = true;
+    }
+
+    @Override
+    public void onStageCleared() {
+        stageCleared = true;
+    }
+
+    public List<String> getLog() {
+        return log;
+    }
+
+    public List<Integer> getAchievements() {
+        return achievements;
+    }
+
+    public int getPlayerDiscHits() {
+        return playerDiscHits;
+    }
+
+    public boolean playerDied() {
+        return playerDied;
+    }
+
+    public boolean stageCleared() {
+        return stageCleared;
+    }
+}
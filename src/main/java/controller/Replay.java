@@ -0,0 +1,360 @@
+package controller;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import arena.Arena;
+import arena.LevelConfig;
+import arena.LevelManager;
+import arena.MatchSeed;
+import characters.Character;
+import characters.Direction;
+import characters.Kevin;
+import characters.Tron;
+
+/**
+ * A recorded stage: the match seed, the LevelConfig, the player's stats at
+ * stage start and every player input tagged with the simulation step it was
+ * applied on. Because the simulation is deterministic for a given seed and
+ * input sequence, this is enough to re-run the stage exactly.
+ *
+ * Binary layout (big-endian, varints are unsigned LEB128):
+ * magic "TRP" + version byte, seed (8 bytes), chapter, stage, LevelConfig,
+ * player (name, xp, speed, handling, max lives, row, col, direction),
+ * input count, then per input the step delta (varint) and the input char
+ * (1 byte; 0x80 + slot marks an enemy AI budget fallback), then the final
+ * step, outcome and a 64-bit hash of the final grid and cycles (version 2;
+ * version 1 files have no hash and are checked on outcome and step only).
+ * A typical stage is a few hundred bytes.
+ */
+public class Replay implements GameSimulation.InputListener {
+
+    private static final byte[] MAGIC = { 'T', 'R', 'P' };
+    private static final int VERSION = 2;
+
+    public static final int OUTCOME_UNFINISHED = 0;
+    public static final int OUTCOME_CLEARED = 1;
+    public static final int OUTCOME_DIED = 2;
+
+    private long seed;
+    private int chapter;
+    private int stage;
+    private LevelConfig config;
+
+    private String playerName;
+    private long playerXp;
+    private double playerSpeed;
+    private double playerHandling;
+    private double playerMaxLives;
+    private int playerRow;
+    private int playerCol;
+    private Direction playerDirection;
+
+    private long[] inputSteps = new long[64];
+    private char[] inputs = new char[64];
+    private int inputCount = 0;
+
+    private long finalStep = 0;
+    private int outcome = OUTCOME_UNFINISHED;
+    private long stateHash = 0L;
+    private boolean hasStateHash = false;
+
+    private Replay() {
+    }
+
+    /** Start recording a stage; call before the GameSimulation is created. */
+    public static Replay record(MatchSeed seed, int chapter, int stage, LevelConfig config, Character player) {
+        Replay replay = new Replay();
+        replay.seed = seed.getSeed();
+        replay.chapter = chapter;
+        replay.stage = stage;
+        replay.config = config;
+        replay.playerName = player.name;
+        replay.playerXp = player.getXp();
+        replay.playerSpeed = player.getSpeed();
+        replay.playerHandling = player.getHandling();
+        replay.playerMaxLives = player.getMaxLives();
+        replay.playerRow = player.getRow();
+        replay.playerCol = player.getCol();
+        replay.playerDirection = player.currentDirection;
+        return replay;
+    }
+
+    @Override
+    public void onInput(long step, char input) {
+        if (inputCount == inputs.length) {
+            inputSteps = Arrays.copyOf(inputSteps, inputCount * 2);
+            inputs = Arrays.copyOf(inputs, inputCount * 2);
+        }
+        inputSteps[inputCount] = step;
+        inputs[inputCount] = input;
+        inputCount++;
+    }
+
+    /** Seal the recording with how (and when) the stage ended. */
+    public void finish(GameSimulation sim) {
+        this.finalStep = sim.getStepCount();
+        this.outcome = sim.isStageCleared() ? OUTCOME_CLEARED
+                : sim.isPlayerDead() ? OUTCOME_DIED : OUTCOME_UNFINISHED;
+        this.stateHash = stateHash(sim);
+        this.hasStateHash = true;
+    }
+
+    /**
+     * FNV-1a hash of the grid and of every cycle's position, heading and
+     * lives, in list order. Two runs that diverged at any point almost surely
+     * end on different hashes even when outcome and step agree.
+     */
+    public static long stateHash(GameSimulation sim) {
+        long h = 0xCBF29CE484222325L;
+        for (char[] row : sim.getArena().getGrid())
+            for (char cell : row)
+                h = (h ^ cell) * 0x100000001B3L;
+        for (Character c : sim.getCycles()) {
+            h = (h ^ c.getRow()) * 0x100000001B3L;
+            h = (h ^ c.getCol()) * 0x100000001B3L;
+            h = (h ^ (c.currentDirection != null ? c.currentDirection.ordinal() : -1)) * 0x100000001B3L;
+            h = (h ^ Double.doubleToLongBits(c.getLives())) * 0x100000001B3L;
+        }
+        return h;
+    }
+
+    /** Build the stage exactly as it was at the start of the recording. */
+    public GameSimulation createSimulation(GameObserver observer) {
+        MatchSeed matchSeed = new MatchSeed(seed);
+        Arena arena = Arena.forChapter(chapter, matchSeed);
+
+        Character player = "Kevin".equalsIgnoreCase(playerName) ? new Kevin() : new Tron();
+        player.setXp(playerXp);
+        player.setSpeed(playerSpeed);
+        player.setHandling(playerHandling);
+        player.setMaxLives(playerMaxLives);
+        player.r = playerRow;
+        player.c = playerCol;
+        player.currentDirection = playerDirection;
+        player.prepareForNextStage();
+
+        List<Character> cycles = new ArrayList<>();
+        cycles.add(player);
+        cycles.addAll(LevelManager.loadStage(chapter, config, arena, matchSeed.stream(MatchSeed.LEVEL)));
+        return new GameSimulation(arena, cycles, observer, matchSeed);
+    }
+
+    /** Called every renderEvery steps during playback (e.g. to paint a frame). */
+    public interface FrameListener {
+        void onFrame(GameSimulation sim);
+    }
+
+    /**
+     * Re-run the recording as fast as possible, feeding each input on its
+     * original step. Stops at the recorded final step (or when the stage
+     * ends); returns the number of steps run.
+     */
+    public long play(GameSimulation sim, int renderEvery, FrameListener frames) {
+        int next = 0;
+        long limit = (finalStep > 0) ? finalStep : Long.MAX_VALUE;
+        while (sim.getStepCount() < limit) {
+            long upcoming = sim.getStepCount() + 1;
+            while (next < inputCount && inputSteps[next] <= upcoming) {
+                char input = inputs[next++];
+                if (input == GameSimulation.INPUT_THROW)
+                    sim.requestPlayerThrow();
+                else if (input >= GameSimulation.INPUT_AI_FALLBACK)
+                    sim.suspendEnemyStrategy(input - GameSimulation.INPUT_AI_FALLBACK);
+                else
+                    sim.requestPlayerDirection(input);
+            }
+            boolean running = sim.step();
+            if (frames != null && renderEvery > 0 && (sim.getStepCount() % renderEvery == 0 || !running))
+                frames.onFrame(sim);
+            if (!running)
+                break;
+        }
+        return sim.getStepCount();
+    }
+
+    /**
+     * True when a playback ended the same way, on the same step and in the
+     * same final state (grid and cycles) as the recording.
+     */
+    public boolean matches(GameSimulation sim) {
+        int replayed = sim.isStageCleared() ? OUTCOME_CLEARED
+                : sim.isPlayerDead() ? OUTCOME_DIED : OUTCOME_UNFINISHED;
+        return replayed == outcome && sim.getStepCount() == finalStep
+                && (!hasStateHash || stateHash(sim) == stateHash);
+    }
+
+    // --- Serialization ---
+
+    public byte[] toBytes() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + inputCount * 2);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.write(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(seed);
+            writeVarint(out, chapter);
+            writeVarint(out, stage);
+
+            writeVarint(out, config.enemyTypes.size());
+            for (Map.Entry<String, Integer> e : config.enemyTypes.entrySet()) {
+                out.writeUTF(e.getKey());
+                writeVarint(out, e.getValue());
+            }
+            out.writeBoolean(config.hasBoss);
+            out.writeUTF(config.bossName != null ? config.bossName : "");
+
+            out.writeUTF(playerName != null ? playerName : "");
+            writeVarint(out, playerXp);
+            out.writeDouble(playerSpeed);
+            out.writeDouble(playerHandling);
+            out.writeDouble(playerMaxLives);
+            writeVarint(out, playerRow);
+            writeVarint(out, playerCol);
+            out.writeByte(playerDirection.ordinal());
+
+            writeVarint(out, inputCount);
+            long prev = 0;
+            for (int i = 0; i < inputCount; i++) {
+                writeVarint(out, inputSteps[i] - prev);
+                out.writeByte(inputs[i]);
+                prev = inputSteps[i];
+            }
+            writeVarint(out, finalStep);
+            out.writeByte(outcome);
+            out.writeLong(stateHash);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // in-memory stream
+        }
+    }
+
+    public static Replay fromBytes(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC))
+            throw new IOException("Not a replay file");
+        int version = in.readUnsignedByte();
+        if (version < 1 || version > VERSION)
+            throw new IOException("Unsupported replay version " + version);
+
+        Replay r = new Replay();
+        r.seed = in.readLong();
+        r.chapter = (int) readVarint(in);
+        r.stage = (int) readVarint(in);
+
+        r.config = new LevelConfig();
+        int types = (int) readVarint(in);
+        for (int i = 0; i < types; i++) {
+            String type = in.readUTF();
+            r.config.addEnemyType(type, (int) readVarint(in));
+        }
+        r.config.hasBoss = in.readBoolean();
+        String boss = in.readUTF();
+        r.config.bossName = boss.isEmpty() ? null : boss;
+
+        r.playerName = in.readUTF();
+        r.playerXp = readVarint(in);
+        r.playerSpeed = in.readDouble();
+        r.playerHandling = in.readDouble();
+        r.playerMaxLives = in.readDouble();
+        r.playerRow = (int) readVarint(in);
+        r.playerCol = (int) readVarint(in);
+        r.playerDirection = Direction.values()[in.readUnsignedByte()];
+
+        int n = (int) readVarint(in);
+        r.inputSteps = new long[Math.max(n, 1)];
+        r.inputs = new char[Math.max(n, 1)];
+        long step = 0;
+        for (int i = 0; i < n; i++) {
+            step += readVarint(in);
+            r.inputSteps[i] = step;
+            r.inputs[i] = (char) in.readUnsignedByte();
+        }
+        r.inputCount = n;
+        r.finalStep = readVarint(in);
+        r.outcome = in.readUnsignedByte();
+        if (version >= 2) {
+            r.stateHash = in.readLong();
+            r.hasStateHash = true;
+        }
+        return r;
+    }
+
+    public void save(File file) throws IOException {
+        Files.write(file.toPath(), toBytes());
+    }
+
+    public static Replay load(File file) throws IOException {
+        return fromBytes(Files.readAllBytes(file.toPath()));
+    }
+
+    /** Save as dir/C{chapter}S{stage}-{seed}.trp, creating dir if needed. */
+    public File saveToDirectory(File dir) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs())
+            throw new IOException("Cannot create " + dir);
+        File file = new File(dir, "C" + chapter + "S" + stage + "-" + Long.toHexString(seed) + ".trp");
+        save(file);
+        return file;
+    }
+
+    private static void writeVarint(DataOutputStream out, long v) throws IOException {
+        while ((v & ~0x7FL) != 0) {
+            out.writeByte((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+    private static long readVarint(DataInputStream in) throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return v;
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    // --- Accessors ---
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getChapter() {
+        return chapter;
+    }
+
+    public int getStage() {
+        return stage;
+    }
+
+    public int getInputCount() {
+        return inputCount;
+    }
+
+    public long getFinalStep() {
+        return finalStep;
+    }
+
+    public int getOutcome() {
+        return outcome;
+    }
+
+    public long getStateHash() {
+        return stateHash;
+    }
+}
@@ -0,0 +1,74 @@
+package controller;
+
+import javax.swing.*;
+import java.io.File;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import arena.ArenaView;
+
+/**
+ * Plays a recorded stage back faster than real time. Headless by default;
+ * with --render-every N a window shows every Nth simulation step.
+ *
+ * Usage: ReplayPlayer FILE.trp [--render-every N]
+ */
+public class ReplayPlayer {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: ReplayPlayer FILE.trp [--render-every N]");
+            return;
+        }
+        File file = new File(args[0]);
+        int renderEvery = 0;
+        for (int i = 1; i < args.length; i++) {
+            if ("--render-every".equals(args[i]))
+                renderEvery = Integer.parseInt(args[++i]);
+        }
+
+        Replay replay = Replay.load(file);
+        System.out.println("[ReplayPlayer] " + file.getName() + ": C" + replay.getChapter() + " S" + replay.getStage()
+                + ", seed " + replay.getSeed() + ", " + replay.getInputCount() + " inputs, " + replay.getFinalStep()
+                + " steps, " + file.length() + " bytes");
+
+        GameSimulation sim = replay.createSimulation(GameObserver.NONE);
+        Replay.FrameListener frames = null;
+        if (renderEvery > 0)
+            frames = openWindow(sim);
+
+        long t0 = System.nanoTime();
+        long steps = replay.play(sim, renderEvery, frames);
+        double wallS = (System.nanoTime() - t0) / 1_000_000_000.0;
+        double simS = steps * GameSimulation.STEP_NS / 1_000_000_000.0;
+
+        String outcome = sim.isStageCleared() ? "cleared" : sim.isPlayerDead() ? "died" : "unfinished";
+        System.out.println(String.format(Locale.ROOT,
+                "[ReplayPlayer] %s after %d steps (%.1f s game time) in %.3f s wall (%.0fx real time); %s recording",
+                outcome, steps, simS, wallS, simS / Math.max(wallS, 1e-9),
+                replay.matches(sim) ? "matches" : "DIVERGED from"));
+    }
+
+    private static Replay.FrameListener openWindow(GameSimulation sim) throws Exception {
+        ArenaView view = new ArenaView();
+        SwingUtilities.invokeAndWait(() -> {
+            JFrame frame = new JFrame("Replay");
+            frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            view.setPreferredSize(new java.awt.Dimension(800, 800));
+            frame.add(view);
+            frame.pack();
+            frame.setVisible(true);
+        });
+        // Frames are painted synchronously so the window never falls behind the replay
+        Map<String, ImageIcon> icons = new HashMap<>();
+        return s -> {
+            try {
+                s.getArena().publishSnapshot(s.getCycles(), s.getStepCount());
+                SwingUtilities.invokeAndWait(() -> view.render(s.getArena(), icons));
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+}
@@ -0,0 +1,130 @@
+package controller;
+
+import java.util.Random;
+
+import arena.OccupancyGrid;
+import characters.Character;
+import characters.Direction;
+
+/**
+ * Simple bot that drives the player in headless runs. It steers away from
+ * anything that would hurt within a few cells, wanders now and then, and
+ * throws a disc when an enemy is lined up within throw range.
+ */
+public class ScriptedPlayer {
+
+    private static final int LOOK_AHEAD = 6;
+    private static final int THROW_RANGE = 5;
+    private static final double WANDER_CHANCE = 0.01;
+
+    private final Random rand;
+
+    public ScriptedPlayer(Random rand) {
+        this.rand = rand;
+    }
+
+    // Called once before every simulation step
+    public void drive(GameSimulation sim) {
+        Character player = sim.getPlayer();
+        char[][] grid = sim.getArena().getGrid();
+        OccupancyGrid occupancy = sim.getArena().getOccupancy();
+        Direction dir = player.currentDirection;
+
+        int ahead = freeRun(player, grid, occupancy, dir);
+        Direction left = turnLeft(dir);
+        Direction right = turnRight(dir);
+        if (ahead < 2 || rand.nextDouble() < WANDER_CHANCE) {
+            int l = freeRun(player, grid, occupancy, left);
+            int r = freeRun(player, grid, occupancy, right);
+            Direction best;
+            if (l == r)
+                best = rand.nextBoolean() ? left : right;
+            else
+                best = (l > r) ? left : right;
+            if (Math.max(l, r) > ahead)
+                sim.requestPlayerDirection(keyFor(best));
+        }
+
+        if (player.hasDisc() && enemyInLine(player, grid, occupancy, dir))
+            sim.requestPlayerThrow();
+    }
+
+    // Number of safe cells straight ahead in the given direction (capped)
+    private int freeRun(Character player, char[][] grid, OccupancyGrid occupancy, Direction dir) {
+        int r = player.getRow();
+        int c = player.getCol();
+        for (int i = 0; i < LOOK_AHEAD; i++) {
+            r += dr(dir);
+            c += dc(dir);
+            if (r < 0 || r >= grid.length || c < 0 || c >= grid[0].length)
+                return i;
+            char tile = grid[r][c];
+            if (tile != '.' && tile != 'S' && tile != 'D' && tile != player.getSymbol())
+                return i;
+            if (occupancy.at(r, c) != null)
+                return i;
+        }
+        return LOOK_AHEAD;
+    }
+
+    private boolean enemyInLine(Character player, char[][] grid, OccupancyGrid occupancy, Direction dir) {
+        int r = player.getRow();
+        int c = player.getCol();
+        for (int i = 0; i < THROW_RANGE; i++) {
+            r += dr(dir);
+            c += dc(dir);
+            if (r < 0 || r >= grid.length || c < 0 || c >= grid[0].length)
+                return false;
+            Character other = occupancy.at(r, c);
+            if (other != null && other != player)
+                return true;
+            char tile = grid[r][c];
+            if (tile == '#' || tile == 'O')
+                return false;
+        }
+        return false;
+    }
+
+    private static int dr(Direction d) {
+        return switch (d) {
+            case NORTH -> -1;
+            case SOUTH -> 1;
+            default -> 0;
+        };
+    }
+
+    private static int dc(Direction d) {
+        return switch (d) {
+            case WEST -> -1;
+            case EAST -> 1;
+            default -> 0;
+        };
+    }
+
+    private static Direction turnLeft(Direction d) {
+        return switch (d) {
+            case NORTH -> Direction.WEST;
+            case WEST -> Direction.SOUTH;
+            case SOUTH -> Direction.EAST;
+            case EAST -> Direction.NORTH;
+        };
+    }
+
+    private static Direction turnRight(Direction d) {
+        return switch (d) {
+            case NORTH -> Direction.EAST;
+            case EAST -> Direction.SOUTH;
+            case SOUTH -> Direction.WEST;
+            case WEST -> Direction.NORTH;
+        };
+    }
+
+    private static char keyFor(Direction d) {
+        return switch (d) {
+            case NORTH -> 'W';
+            case SOUTH -> 'S';
+            case WEST -> 'A';
+            case EAST -> 'D';
+        };
+    }
+}
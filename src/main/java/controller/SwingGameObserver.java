@@ -0,0 +1,35 @@
+package controller;
+
+import java.awt.Color;
+
+import arena.ArenaLoader;
+
+/**
+ * Forwards simulation events to the Swing HUD through ArenaLoader. Stage end
+ * is left to GameController, which owns the dialogs.
+ */
+public class SwingGameObserver implements GameObserver {
+
+    public static final SwingGameObserver INSTANCE = new SwingGameObserver();
+
+    @Override
+    public void onLog(String message) {
+        ArenaLoader.appendGameplayLog(message);
+    }
+
+    @Override
+    public void onAchievement(int index, String title, String description) {
+        ArenaLoader.unlockAchievement(index, title, description);
+    }
+
+    @Override
+    public void onPlayerHitByDisc() {
+        ArenaLoader.pulseLog(new Color(0, 180, 255));
+    }
+
+    // The HUD counts down in wall-clock time; convert from the simulation clock
+    @Override
+    public void onDiscCooldown(long remainingNs) {
+        ArenaLoader.setDiscCooldownEnd(System.nanoTime() + remainingNs);
+    }
+}
@@ -0,0 +1,103 @@
+package controller;
+
+import java.io.PrintWriter;
+import java.util.Locale;
+
+/**
+ * Per-phase timings of the game loop. Each phase feeds a fixed-bucket
+ * LatencyHistogram, so sampling costs two System.nanoTime() calls and an
+ * array increment. Per-enemy phases record one sample per enemy call.
+ * {@link #DISABLED} turns every call into a no-op for headless runs.
+ */
+public class TickProfiler {
+
+    public static final int STEP = 0;
+    public static final int MOVE_DISCS = 1;
+    public static final int MOVE_PLAYER = 2;
+    public static final int SNAPSHOT_GRID = 3;
+    public static final int ENEMY_THROW = 4;
+    public static final int ENEMY_MOVE = 5;
+    public static final int TRAIL_DECAY = 6;
+    public static final int REDRAW_HANDOFF = 7;
+    public static final int REDRAW = 8;
+    public static final int ENEMY_DECIDE = 9;
+    public static final int AI_FIELDS = 10;
+    private static final String[] PHASE_NAMES = { "step (total)", "moveDiscs", "movePlayer", "snapshotGrid",
+            "enemy tryEnemyThrow", "enemy processEnemyMove", "handleTrailDecay", "redraw hand-off", "redraw (EDT)",
+            "enemy decisions (all)", "AI distance fields" };
+
+    public static final TickProfiler DISABLED = new TickProfiler(false);
+
+    private final boolean enabled;
+    private final LatencyHistogram[] phases = new LatencyHistogram[PHASE_NAMES.length];
+    // Steps that took longer than the fixed step they simulate
+    private volatile long overruns = 0;
+
+    public TickProfiler() {
+        this(true);
+    }
+
+    private TickProfiler(boolean enabled) {
+        this.enabled = enabled;
+        for (int i = 0; i < phases.length; i++)
+            phases[i] = new LatencyHistogram(PHASE_NAMES[i]);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Start timestamp for a phase (0 when disabled). */
+    public long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /** Record the phase that began at startNs. */
+    public void end(int phase, long startNs) {
+        if (!enabled)
+            return;
+        long elapsed = System.nanoTime() - startNs;
+        phases[phase].record(elapsed);
+        if (phase == STEP && elapsed > GameSimulation.STEP_NS)
+            overruns++;
+    }
+
+    public LatencyHistogram getPhase(int phase) {
+        return phases[phase];
+    }
+
+    public long getOverruns() {
+        return overruns;
+    }
+
+    public void reset() {
+        for (LatencyHistogram h : phases)
+            h.reset();
+        overruns = 0;
+    }
+
+    /** Fixed-width table (times in microseconds) for the on-screen overlay. */
+    public String[] table() {
+        String[] lines = new String[phases.length + 2];
+        lines[0] = String.format(Locale.ROOT, "%-22s %8s %8s %8s %8s %8s", "phase (us)", "n", "p50", "p95", "p99",
+                "max");
+        for (int i = 0; i < phases.length; i++) {
+            LatencyHistogram h = phases[i];
+            lines[i + 1] = String.format(Locale.ROOT, "%-22s %8d %8.1f %8.1f %8.1f %8.1f", h.getName(), h.getCount(),
+                    h.percentileNs(50) / 1e3, h.percentileNs(95) / 1e3, h.percentileNs(99) / 1e3,
+                    h.getMaxNs() / 1e3);
+        }
+        lines[lines.length - 1] = "step overruns (> " + GameSimulation.STEP_NS / 1_000_000 + " ms): " + overruns;
+        return lines;
+    }
+
+    /** The table followed by every phase's raw buckets. */
+    public void writeTo(PrintWriter out) {
+        for (String line : table())
+            out.println(line);
+        for (LatencyHistogram h : phases) {
+            out.println();
+            h.writeTo(out);
+        }
+    }
+}
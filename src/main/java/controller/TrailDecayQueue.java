@@ -0,0 +1,64 @@
+package controller;
+
+import java.util.Arrays;
+
+/**
+ * Timing wheel of trail cells keyed by the global step at which they expire.
+ * Trail placement schedules one entry; each tick only the buckets that came
+ * due are popped, instead of scanning the whole grid. The wheel is sized to
+ * the longest trail duration of the stage so no two pending expiry steps
+ * share a bucket.
+ */
+public class TrailDecayQueue {
+
+    // Called for every entry whose expiry step has been reached
+    public interface Expiry {
+        void expire(int cell, int placementStep, int dueStep);
+    }
+
+    private final int mask;
+    private final int[][] cells;
+    private final int[][] stamps;
+    private final int[] sizes;
+    private int lastProcessedStep;
+
+    public TrailDecayQueue(int maxDuration, int currentStep) {
+        int size = Integer.highestOneBit(Math.max(2, maxDuration + 1) * 2 - 1);
+        this.mask = size - 1;
+        this.cells = new int[size][16];
+        this.stamps = new int[size][16];
+        this.sizes = new int[size];
+        this.lastProcessedStep = currentStep - 1;
+    }
+
+    /** Schedule a trail cell placed at placementStep to expire at expiryStep. */
+    public void schedule(int cell, int placementStep, int expiryStep) {
+        if (expiryStep <= lastProcessedStep)
+            expiryStep = lastProcessedStep + 1;
+        if (expiryStep - lastProcessedStep > mask)
+            expiryStep = lastProcessedStep + mask; // longer than the wheel: clamp
+        int b = expiryStep & mask;
+        int n = sizes[b];
+        if (n == cells[b].length) {
+            cells[b] = Arrays.copyOf(cells[b], n * 2);
+            stamps[b] = Arrays.copyOf(stamps[b], n * 2);
+        }
+        cells[b][n] = cell;
+        stamps[b][n] = placementStep;
+        sizes[b] = n + 1;
+    }
+
+    /** Pop every entry due at or before step, in expiry order. */
+    public void advanceTo(int step, Expiry handler) {
+        while (lastProcessedStep < step) {
+            int due = ++lastProcessedStep;
+            int b = due & mask;
+            int n = sizes[b];
+            sizes[b] = 0;
+            int[] bucketCells = cells[b];
+            int[] bucketStamps = stamps[b];
+            for (int i = 0; i < n; i++)
+                handler.expire(bucketCells[i], bucketStamps[i], due);
+        }
+    }
+}
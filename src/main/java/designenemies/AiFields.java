@@ -0,0 +1,175 @@
+package designenemies;
+
+import java.util.Arrays;
+
+import arena.GridBits;
+import characters.Direction;
+
+/**
+ * Per-step fields shared by every enemy strategy, computed once by the engine
+ * over the step's grid snapshot instead of each enemy probing its own
+ * neighbourhood:
+ * <ul>
+ * <li>distance to the player's head (BFS over open cells),</li>
+ * <li>distance to the nearest blocked cell (multi-source BFS from every cell a
+ * boss may not enter, so walls, obstacles, trails and discs; the border counts
+ * as blocked),</li>
+ * <li>danger: how many disc moves until a flying player disc crosses the cell.</li>
+ * </ul>
+ * The searches grow whole rings at a time on the {@link GridBits} planes and
+ * only touch single cells to record each ring's distance. All arrays are
+ * allocated once per grid size; each query is O(1).
+ */
+public final class AiFields {
+
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    // Direction ordinals: NORTH, SOUTH, EAST, WEST
+    private static final int[] DR = { -1, 1, 0, 0 };
+    private static final int[] DC = { 0, 0, 1, -1 };
+
+    private int rows = -1;
+    private int cols = -1;
+    private int[] playerDist;
+    private int[] wallDist;
+    private int[] danger;
+    private int[] queue;
+    private long[] frontier;
+    private long[] visited;
+    private long[] ring;
+    private boolean hasPlayer = false;
+    private long step = -1;
+
+    /**
+     * Recompute the distance fields for a step and clear the danger map; follow
+     * with {@link #addDiscPath} for every flying disc.
+     */
+    public void compute(GridBits bits, int playerR, int playerC, boolean playerAlive, long step) {
+        ensureBuffers(bits);
+        this.step = step;
+        Arrays.fill(danger, UNREACHABLE);
+        computeWallDistance(bits);
+        hasPlayer = playerAlive && playerR >= 0 && playerR < rows && playerC >= 0 && playerC < cols;
+        if (hasPlayer)
+            computePlayerDistance(bits, playerR, playerC);
+        else
+            Arrays.fill(playerDist, UNREACHABLE);
+    }
+
+    /** Project a disc at (r, c) flying toward dir for up to cellsLeft more cells. */
+    public void addDiscPath(GridBits bits, int r, int c, Direction dir, int cellsLeft) {
+        int d = dir.ordinal();
+        for (int k = 1; k <= cellsLeft; k++) {
+            int nr = r + DR[d] * k;
+            int nc = c + DC[d] * k;
+            if (bits.isSolid(nr, nc))
+                return;
+            int idx = nr * cols + nc;
+            if (k < danger[idx])
+                danger[idx] = k;
+        }
+    }
+
+    public boolean hasPlayer() {
+        return hasPlayer;
+    }
+
+    /** Steps from the player's head to (r, c) over open cells, or UNREACHABLE. */
+    public int distanceToPlayer(int r, int c) {
+        return inBounds(r, c) ? playerDist[r * cols + c] : UNREACHABLE;
+    }
+
+    /** Same as {@link #distanceToPlayer(int, int)} for the cell index r * cols + c. */
+    public int playerDistanceAt(int cell) {
+        return playerDist[cell];
+    }
+
+    /** Steps from (r, c) to the nearest blocked cell; 0 on a blocked cell or off the grid. */
+    public int distanceToWall(int r, int c) {
+        return inBounds(r, c) ? wallDist[r * cols + c] : 0;
+    }
+
+    /** Disc moves until a player disc crosses (r, c), or UNREACHABLE. */
+    public int dangerIn(int r, int c) {
+        return inBounds(r, c) ? danger[r * cols + c] : UNREACHABLE;
+    }
+
+    public boolean isDangerous(int r, int c) {
+        return dangerIn(r, c) != UNREACHABLE;
+    }
+
+    /** The step these fields were computed for (-1 before the first). */
+    public long getStep() {
+        return step;
+    }
+
+    private boolean inBounds(int r, int c) {
+        return r >= 0 && r < rows && c >= 0 && c < cols;
+    }
+
+    // Ring by ring from the player's head over open cells, a word at a time
+    private void computePlayerDistance(GridBits bits, int pr, int pc) {
+        Arrays.fill(playerDist, UNREACHABLE);
+        Arrays.fill(frontier, 0L);
+        Arrays.fill(visited, 0L);
+        bits.set(frontier, pr, pc);
+        bits.set(visited, pr, pc);
+        playerDist[pr * cols + pc] = 0;
+        fillRings(bits, bits.openPlane(), playerDist, 1);
+    }
+
+    // Blocked cells are 0 and the open border cells 1 (the edge of the world is
+    // blocked too), then rings outward over the open cells
+    private void computeWallDistance(GridBits bits) {
+        Arrays.fill(wallDist, 0);
+        long[] open = bits.openPlane();
+        long[] border = bits.borderPlane();
+        long[] inside = bits.insidePlane();
+        for (int i = 0; i < frontier.length; i++) {
+            long blocked = inside[i] & ~open[i];
+            frontier[i] = blocked;
+            visited[i] = blocked;
+        }
+        bits.expand(frontier, visited, ring, open);
+        for (int i = 0; i < frontier.length; i++) {
+            long edge = border[i] & open[i] & ~visited[i];
+            ring[i] |= edge;
+            visited[i] |= edge;
+        }
+        int n = bits.cellsOf(ring, queue);
+        for (int k = 0; k < n; k++)
+            wallDist[queue[k]] = 1;
+        System.arraycopy(ring, 0, frontier, 0, ring.length);
+        fillRings(bits, open, wallDist, 2);
+    }
+
+    // Grow frontier ring by ring inside mask, writing each ring's distance
+    private void fillRings(GridBits bits, long[] mask, int[] dist, int first) {
+        int d = first;
+        while (bits.expand(frontier, visited, ring, mask) > 0) {
+            int n = bits.cellsOf(ring, queue);
+            for (int k = 0; k < n; k++)
+                dist[queue[k]] = d;
+            long[] swap = frontier;
+            frontier = ring;
+            ring = swap;
+            d++;
+        }
+    }
+
+    private void ensureBuffers(GridBits bits) {
+        int r = bits.rows();
+        int c = bits.cols();
+        if (r == rows && c == cols)
+            return;
+        rows = r;
+        cols = c;
+        playerDist = new int[r * c];
+        wallDist = new int[r * c];
+        danger = new int[r * c];
+        queue = new int[r * c];
+        frontier = bits.newPlane();
+        visited = bits.newPlane();
+        ring = bits.newPlane();
+    }
+}
@@ -3,17 +3,24 @@ package designenemies;
 import characters.Character;
 import characters.Direction;
 import java.util.Random;
-import java.util.List;
-import java.util.ArrayList;
 
 public class Enemy extends Character {
 
     protected boolean isEnemyBoss;
     protected char[][] arenaGrid;
-    protected Random rand = new Random();
 
     private char trailSymbol = 'M';
 
+    // Who the boss tries to cut off (the player); set by the simulation
+    protected Character target;
+
+    // Move selection (from the Strategy columns of enemies.txt) and the cheap
+    // behaviour used when it is not rolled or ran over its time budget
+    private EnemyStrategy strategy;
+    private final EnemyStrategy fallback = new WanderStrategy();
+    // Moves left on the fallback after a budget overrun
+    private int fallbackMovesLeft = 0;
+
     // CONSTRUCTOR
     public Enemy(String name, boolean isBoss) {
         super();
@@ -66,19 +73,72 @@ public class Enemy extends Character {
             this.aggression = stats.getTierAggression(defaultTier);
 
         }
+        this.strategy = EnemyStrategy.create(stats.getTierStrategy(defaultTier));
     }
 
     public void setArenaGrid(char[][] grid) {
         this.arenaGrid = grid;
     }
 
+    public void setTarget(Character target) {
+        this.target = target;
+    }
+
+    public Character getTarget() {
+        return this.target;
+    }
+
+    public void setStrategy(EnemyStrategy strategy) {
+        this.strategy = (strategy != null) ? strategy : fallback;
+    }
+
+    public EnemyStrategy getStrategy() {
+        return this.strategy;
+    }
+
+    /** Use the cheap fallback for the next moves (after a budget overrun). */
+    public void suspendStrategy(int moves) {
+        this.fallbackMovesLeft = Math.max(this.fallbackMovesLeft, moves);
+    }
+
+    public boolean isStrategySuspended() {
+        return this.fallbackMovesLeft > 0;
+    }
+
+    public Random getRandom() {
+        return this.rand;
+    }
+
     public void spawnRandom(int rows, int cols) {
-        this.r = (int) (Math.random() * rows);
-        this.c = (int) (Math.random() * cols);
+        spawnRandom(rows, cols, this.rand);
+    }
+
+    /**
+     * Spawn on a random cell from a precomputed list (r * cols + c, see
+     * {@link arena.Arena#getSpawnCells()}): O(1) instead of rejection sampling
+     * the whole grid. Redraws while the cell is taken, a bounded number of
+     * times. Needs the arena grid set first.
+     */
+    public void spawnAt(int[] spawnCells, Random rand) {
+        if (spawnCells.length == 0) {
+            spawnRandom(arenaGrid.length, arenaGrid[0].length, rand);
+            return;
+        }
+        int cols = arenaGrid[0].length;
+        int cell = spawnCells[rand.nextInt(spawnCells.length)];
+        for (int tries = 1; tries < spawnCells.length && arenaGrid[cell / cols][cell % cols] != '.'; tries++)
+            cell = spawnCells[rand.nextInt(spawnCells.length)];
+        this.r = cell / cols;
+        this.c = cell % cols;
+    }
+
+    public void spawnRandom(int rows, int cols, Random rand) {
+        this.r = rand.nextInt(rows);
+        this.c = rand.nextInt(cols);
         if (arenaGrid != null) {
             while (arenaGrid[r][c] != '.') {
-                this.r = (int) (Math.random() * rows);
-                this.c = (int) (Math.random() * cols);
+                this.r = rand.nextInt(rows);
+                this.c = rand.nextInt(cols);
             }
         }
     }
@@ -90,15 +150,24 @@ public class Enemy extends Character {
     private double aggression;
 
     // DECISION LOGIC
-    public Direction decideMove() {
-        if (this.isEnemyBoss) {
-            // Boss uses aggression as the probability to execute the smart strategy
-            if (rand.nextDouble() < this.aggression)
-                return decideMoveSmart();
-            return decideMoveStupid();
-        } else {
-            return decideMoveStupid();
+    // Returns the strategy that will make this move: the configured one, unless
+    // it is suspended or the aggression roll fails (the roll is skipped for
+    // enemies whose strategy already is the cheap one)
+    public EnemyStrategy nextStrategy() {
+        if (this.fallbackMovesLeft > 0) {
+            this.fallbackMovesLeft--;
+            return fallback;
         }
+        if (strategy instanceof WanderStrategy)
+            return strategy;
+        // Aggression is the probability to execute the heavier strategy
+        if (rand.nextDouble() < this.aggression)
+            return strategy;
+        return fallback;
+    }
+
+    public Direction decideMove(GridView grid, long budgetNs) {
+        return nextStrategy().decide(this, grid, budgetNs);
     }
 
     public double getSpeed() {
@@ -135,11 +204,12 @@ public class Enemy extends Character {
 
     // moveDelayMs: desired delay between moves in milliseconds
     private long moveDelayNs = 0L; // stored internally as nanoseconds
-    private long lastMoveNs = 0L; // last move timestamp
 
+    // The engine runs on moves per second, so the delay is converted once here
     public void setMoveDelayMs(long ms) {
         this.moveDelayNs = Math.max(0L, ms) * 1_000_000L;
-        this.lastMoveNs = System.nanoTime();
+        if (ms > 0)
+            setMovesPerSecond(1000.0 / ms);
     }
 
     public long getMoveDelayMs() {
@@ -150,131 +220,29 @@ public class Enemy extends Character {
         return this.moveDelayNs;
     }
 
-    public long getLastMoveNs() {
-        return this.lastMoveNs;
-    }
-
-    public void setLastMoveNs(long ns) {
-        this.lastMoveNs = ns;
-    }
-
-    // STRATEGY 1: SMART (Boss)
-    private Direction decideMoveSmart() {
-        int[] straight = getNextCoords(currentDirection);
-        if (isBossSafe(straight[0], straight[1]))
-            return currentDirection;
-
-        Direction right = getTurn(currentDirection, true);
-        int[] rCoords = getNextCoords(right);
-        if (isBossSafe(rCoords[0], rCoords[1]))
-            return right;
-
-        Direction left = getTurn(currentDirection, false);
-        int[] lCoords = getNextCoords(left);
-        if (isBossSafe(lCoords[0], lCoords[1]))
-            return left;
-
-        // Last resort: turn back if it's the only safe exit
-        Direction back = getOpposite(currentDirection);
-        int[] backCoords = getNextCoords(back);
-        if (isBossSafe(backCoords[0], backCoords[1]))
-            return back;
-
-        return currentDirection;
-    }
-
-    // STRATEGY 2: STUPID (Minion)
-    private Direction decideMoveStupid() {
-        int[] straight = getNextCoords(currentDirection);
-
-        // Momentum: probability to keep moving straight equals 'handling' (higher
-        // handling => more precise)
-        if (isMinionSafe(straight[0], straight[1]) && rand.nextDouble() < this.handling) {
-            return currentDirection;
-        }
-
-        // Random Turn
-        List<Direction> validMoves = new ArrayList<>();
-        for (Direction d : Direction.values()) {
-            if (d == getOpposite(currentDirection))
-                continue;
-            int[] next = getNextCoords(d);
-            if (isMinionSafe(next[0], next[1])) {
-                validMoves.add(d);
-            }
-        }
-
-        if (!validMoves.isEmpty()) {
-            return validMoves.get(rand.nextInt(validMoves.size()));
-        }
-
-        // Dead-end: allow reverse if it's at least not a wall/obstacle
-        Direction back = getOpposite(currentDirection);
-        int[] backCoords = getNextCoords(back);
-        if (isMinionSafe(backCoords[0], backCoords[1]))
-            return back;
-
-        return currentDirection;
-    }
-
     // HELPERS
-    private int[] getNextCoords(Direction dir) {
-        int nextR = this.r;
-        int nextC = this.c;
-        switch (dir) {
-            case NORTH -> nextR--;
-            case SOUTH -> nextR++;
-            case WEST -> nextC--;
-            case EAST -> nextC++;
-        }
-        return new int[] { nextR, nextC };
-    }
-
-    private boolean isBossSafe(int r, int c) {
-        if (arenaGrid == null)
-            return false;
-        if (r < 0 || r >= arenaGrid.length || c < 0 || c >= arenaGrid[0].length)
-            return false;
-        char cell = arenaGrid[r][c];
-        // Boss avoids everything dangerous
-        return cell == '.' || cell == 'S';
-    }
-
-    private boolean isMinionSafe(int r, int c) {
-        if (arenaGrid == null)
-            return false;
-        if (r < 0 || r >= arenaGrid.length || c < 0 || c >= arenaGrid[0].length)
-            return false;
-        char cell = arenaGrid[r][c];
-        // Minion walks into Player Tails ('T') but avoids walls
-        if (cell == '#' || cell == 'O' || cell == 'M') {
-            return false;
-        }
-        return true;
+    public static Direction getOpposite(Direction d) {
+        return switch (d) {
+            case NORTH -> Direction.SOUTH;
+            case SOUTH -> Direction.NORTH;
+            case EAST -> Direction.WEST;
+            case WEST -> Direction.EAST;
+        };
     }
 
-    private Direction getTurn(Direction d, boolean right) {
-        if (right)
-            return switch (d) {
-                case NORTH -> Direction.EAST;
-                case EAST -> Direction.SOUTH;
-                case SOUTH -> Direction.WEST;
-                case WEST -> Direction.NORTH;
-            };
+    public static int rowStep(Direction d) {
         return switch (d) {
-            case NORTH -> Direction.WEST;
-            case WEST -> Direction.SOUTH;
-            case SOUTH -> Direction.EAST;
-            case EAST -> Direction.NORTH;
+            case NORTH -> -1;
+            case SOUTH -> 1;
+            default -> 0;
         };
     }
 
-    private Direction getOpposite(Direction d) {
+    public static int colStep(Direction d) {
         return switch (d) {
-            case NORTH -> Direction.SOUTH;
-            case SOUTH -> Direction.NORTH;
-            case EAST -> Direction.WEST;
-            case WEST -> Direction.EAST;
+            case EAST -> 1;
+            case WEST -> -1;
+            default -> 0;
         };
     }
 
@@ -23,6 +23,8 @@ public class EnemyLoader {
         public double[] tierHandling = new double[3];
         public double[] tierAggression = new double[3];
         public int[] tierTrail = new int[3];
+        // EnemyStrategy name per tier; null => Territory for bosses, Wander for minions
+        public String[] tierStrategy = new String[3];
 
         // Default constructor to create reasonable defaults
         public EnemyStats() {
@@ -53,6 +55,7 @@ public class EnemyLoader {
                 tierHandling[t - 1] = getDouble(parts, idx, "T" + t + "_Handling", tierHandling[t - 1]);
                 tierAggression[t - 1] = getDouble(parts, idx, "T" + t + "_AggRESSION", tierAggression[t - 1]);
                 tierTrail[t - 1] = getInt(parts, idx, "T" + t + "_Trail", tierTrail[t - 1]);
+                tierStrategy[t - 1] = getString(parts, idx, "T" + t + "_Strategy", tierStrategy[t - 1]);
             }
         }
 
@@ -114,6 +117,13 @@ public class EnemyLoader {
             return tierTrail[Math.max(0, Math.min(2, tier))];
         }
 
+        public String getTierStrategy(int tier) {
+            String s = tierStrategy[Math.max(0, Math.min(2, tier))];
+            if (s != null)
+                return s;
+            return "Boss".equalsIgnoreCase(rank) ? "Territory" : "Wander";
+        }
+
         public char getTrailSymbol() {
             return trailSymbol;
         }
@@ -121,9 +131,11 @@ public class EnemyLoader {
 
     // Stores data. Key = "Name_Rank" (e.g., "Clu_Minion")
     private static Map<String, EnemyStats> database = new HashMap<>();
-    private static boolean isLoaded = false;
+    // Written once under the class lock; volatile so parallel simulations see the
+    // fully built map without locking on every lookup
+    private static volatile boolean isLoaded = false;
 
-    public static void loadData() {
+    public static synchronized void loadData() {
         if (isLoaded)
             return;
 
@@ -0,0 +1,44 @@
+package designenemies;
+
+import characters.Direction;
+
+/**
+ * How an enemy picks its next move. Selected per enemy and tier from the
+ * Strategy columns of data/enemies.txt. Each call gets a read-only view of the
+ * grid and a time budget in nanoseconds (0 = unlimited); the engine measures
+ * the call and, when it runs over, puts the enemy on its cheap fallback for a
+ * while. Implementations keep their scratch buffers between calls, so every
+ * enemy needs its own instance.
+ */
+public interface EnemyStrategy {
+
+    Direction decide(Enemy self, GridView grid, long budgetNs);
+
+    String getName();
+
+    /**
+     * The strategy registered under name (case-insensitive); unknown names fall
+     * back to Wander. "MCTS:n" sets the number of search iterations per move.
+     */
+    static EnemyStrategy create(String name) {
+        String key = (name == null) ? "" : name.trim().toLowerCase();
+        if (key.startsWith("mcts:")) {
+            try {
+                return new MctsStrategy(Integer.parseInt(key.substring(5).trim()));
+            } catch (NumberFormatException e) {
+                System.err.println("Warning: bad MCTS iteration count in '" + name + "'. Using default.");
+                return new MctsStrategy();
+            }
+        }
+        return switch (key) {
+            case "wander" -> new WanderStrategy();
+            case "floodfill" -> new FloodFillStrategy(false);
+            case "territory" -> new FloodFillStrategy(true);
+            case "mcts" -> new MctsStrategy();
+            default -> {
+                System.err.println("Warning: unknown enemy strategy '" + name + "'. Using Wander.");
+                yield new WanderStrategy();
+            }
+        };
+    }
+}
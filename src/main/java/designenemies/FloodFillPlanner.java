@@ -0,0 +1,175 @@
+package designenemies;
+
+import java.util.Arrays;
+
+import arena.GridBits;
+import characters.Direction;
+
+/**
+ * Space-aware move choice for bosses. Every legal next cell is scored with a
+ * breadth-first flood fill that counts how much open space is reachable from
+ * it, so a boss stops steering into pockets closed off by its own trail. In
+ * territory mode the same search also computes a Voronoi partition against the
+ * player's head (cells the boss reaches strictly first), read from the step's
+ * shared {@link AiFields}, and prefers the move that claims the most territory,
+ * which is what cuts the player off. Moves onto a flying player disc's path
+ * lose to any equally roomy move that is not.
+ *
+ * Each search grows a whole breadth-first ring per pass over the view's
+ * {@link GridBits} planes, so the cost is a few words per row per ring rather
+ * than a queue operation per cell; cells are only visited one by one to score
+ * territory. Buffers are allocated once per grid size, and a search stops once
+ * {@code cellBudget} cells are reached.
+ */
+public class FloodFillPlanner {
+
+    // Direction ordinals: NORTH, SOUTH, EAST, WEST
+    private static final int[] DR = { -1, 1, 0, 0 };
+    private static final int[] DC = { 0, 0, 1, -1 };
+    private static final Direction[] DIRS = Direction.values();
+
+    private final int cellBudget;
+
+    private int rows = -1;
+    private int cols = -1;
+    // Bit planes of the current search, and the cells of the newest ring
+    private long[] frontier;
+    private long[] visited;
+    private long[] ring;
+    private int[] ringCells;
+    private final int[] order = new int[3];
+
+    // Results of the last search
+    private int lastReachable;
+    private int lastTerritory;
+
+    public FloodFillPlanner(int cellBudget) {
+        this.cellBudget = Math.max(1, cellBudget);
+    }
+
+    /**
+     * Pick the next direction for a cycle at (r, c) heading {@code current}.
+     * The Voronoi partition needs the view's shared fields and a live player;
+     * without them territory falls back to plain room. Reversing is only
+     * considered when no other move is open.
+     */
+    public Direction choose(GridView grid, int r, int c, Direction current, boolean territoryMode, int safeSpace) {
+        ensureBuffers(grid.bits());
+        AiFields fields = grid.fields();
+        boolean voronoi = territoryMode && fields != null && fields.hasPlayer();
+
+        int cur = current.ordinal();
+        // Straight first so ties keep the current heading, then right and left
+        order[0] = cur;
+        order[1] = right(cur);
+        order[2] = left(cur);
+        Direction best = null;
+        int bestSpace = -1;
+        boolean bestClear = false;
+        int bestTerritory = -1;
+        for (int d : order) {
+            int nr = r + DR[d];
+            int nc = c + DC[d];
+            if (!grid.isOpen(nr, nc))
+                continue;
+            search(grid, nr, nc, r, c, voronoi ? fields : null);
+            // Enough room to outlast our own trail counts as fully safe
+            int space = Math.min(lastReachable, safeSpace);
+            boolean clear = fields == null || !fields.isDangerous(nr, nc);
+            int territory = voronoi ? lastTerritory : lastReachable;
+            if (space > bestSpace || (space == bestSpace && ((clear && !bestClear)
+                    || (clear == bestClear && territory > bestTerritory)))) {
+                best = DIRS[d];
+                bestSpace = space;
+                bestClear = clear;
+                bestTerritory = territory;
+            }
+        }
+        if (best != null)
+            return best;
+
+        int back = opposite(cur);
+        if (grid.isOpen(r + DR[back], c + DC[back]))
+            return DIRS[back];
+        return current;
+    }
+
+    /** Open cells reachable from (r, c), up to the cell budget. */
+    public int reachable(GridView grid, int r, int c) {
+        ensureBuffers(grid.bits());
+        if (!grid.isOpen(r, c))
+            return 0;
+        search(grid, r, c, -1, -1, null);
+        return lastReachable;
+    }
+
+    public int getCellBudget() {
+        return cellBudget;
+    }
+
+    // Ring-by-ring BFS from (sr, sc) with (blockR, blockC) treated as a wall (the
+    // cycle's own head); with fields, also counts the cells reached strictly
+    // before the player
+    private void search(GridView grid, int sr, int sc, int blockR, int blockC, AiFields fields) {
+        GridBits bits = grid.bits();
+        long[] open = bits.openPlane();
+        Arrays.fill(frontier, 0L);
+        Arrays.fill(visited, 0L);
+        if (blockR >= 0)
+            bits.set(visited, blockR, blockC);
+        bits.set(frontier, sr, sc);
+        bits.set(visited, sr, sc);
+        int reached = 1;
+        int territory = (fields != null && 1 < fields.distanceToPlayer(sr, sc)) ? 1 : 0;
+        for (int d = 2; reached < cellBudget; d++) {
+            int n = bits.expand(frontier, visited, ring, open);
+            if (n == 0)
+                break;
+            reached += n;
+            if (fields != null) {
+                bits.cellsOf(ring, ringCells);
+                for (int k = 0; k < n; k++)
+                    if (d < fields.playerDistanceAt(ringCells[k]))
+                        territory++;
+            }
+            long[] swap = frontier;
+            frontier = ring;
+            ring = swap;
+        }
+        lastReachable = Math.min(reached, cellBudget);
+        lastTerritory = territory;
+    }
+
+    private void ensureBuffers(GridBits bits) {
+        if (bits.rows() == rows && bits.cols() == cols)
+            return;
+        rows = bits.rows();
+        cols = bits.cols();
+        frontier = bits.newPlane();
+        visited = bits.newPlane();
+        ring = bits.newPlane();
+        ringCells = new int[rows * cols];
+    }
+
+    private static int right(int d) {
+        return switch (d) {
+            case 0 -> 2; // NORTH -> EAST
+            case 2 -> 1; // EAST -> SOUTH
+            case 1 -> 3; // SOUTH -> WEST
+            default -> 0; // WEST -> NORTH
+        };
+    }
+
+    private static int left(int d) {
+        return switch (d) {
+            case 0 -> 3;
+            case 3 -> 1;
+            case 1 -> 2;
+            default -> 0;
+        };
+    }
+
+    private static int opposite(int d) {
+        return d ^ 1;
+    }
+}
@@ -0,0 +1,33 @@
+package designenemies;
+
+import characters.Direction;
+
+/**
+ * Boss behaviour built on {@link FloodFillPlanner}: move where the most room
+ * is, and in territory mode also where the most of the arena is reached before
+ * the player (Voronoi partition against the engine's distance-to-player field).
+ */
+public class FloodFillStrategy implements EnemyStrategy {
+
+    // Cells each flood fill may visit; 800 is half the 40x40 arena
+    private static final int CELL_BUDGET = 800;
+
+    private final boolean territory;
+    private final FloodFillPlanner planner = new FloodFillPlanner(CELL_BUDGET);
+
+    public FloodFillStrategy(boolean territory) {
+        this.territory = territory;
+    }
+
+    @Override
+    public Direction decide(Enemy self, GridView grid, long budgetNs) {
+        // Room for twice our own trail is treated as "safe enough"
+        return planner.choose(grid, self.getRow(), self.getCol(), self.currentDirection, territory,
+                self.getTrailDuration() * 2);
+    }
+
+    @Override
+    public String getName() {
+        return territory ? "Territory" : "FloodFill";
+    }
+}
@@ -0,0 +1,74 @@
+package designenemies;
+
+import arena.GridBits;
+
+/**
+ * Read-only window onto an arena grid handed to {@link EnemyStrategy}
+ * implementations. Strategies can look at any cell but never write one; the
+ * engine decides which buffer (live grid or per-step snapshot) they see, and
+ * may attach the step's shared {@link AiFields}. Passability is answered from
+ * the matching {@link GridBits} planes, which searches can also walk a word at
+ * a time.
+ */
+public final class GridView {
+    private final char[][] grid;
+    private final int rows;
+    private final int cols;
+    private final GridBits bits;
+    private final AiFields fields;
+
+    /** A view of a fixed grid; its bit planes are built here, once. */
+    public GridView(char[][] grid) {
+        this(grid, GridBits.of(grid), null);
+    }
+
+    /** The engine's view: it reloads bits from grid every step before decisions. */
+    public GridView(char[][] grid, GridBits bits, AiFields fields) {
+        this.grid = grid;
+        this.rows = grid.length;
+        this.cols = grid[0].length;
+        this.bits = bits;
+        this.fields = fields;
+    }
+
+    public GridBits bits() {
+        return bits;
+    }
+
+    /** True when the engine computes shared fields for this view every step. */
+    public boolean hasFields() {
+        return fields != null;
+    }
+
+    /** The step's distance and danger fields, or null outside the engine. */
+    public AiFields fields() {
+        return fields;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public boolean inBounds(int r, int c) {
+        return r >= 0 && r < rows && c >= 0 && c < cols;
+    }
+
+    /** The tile at (r, c); out-of-bounds cells read as wall. */
+    public char get(int r, int c) {
+        return inBounds(r, c) ? grid[r][c] : '#';
+    }
+
+    /** Cells a boss may enter: it avoids everything dangerous. */
+    public boolean isOpen(int r, int c) {
+        return bits.isOpen(r, c);
+    }
+
+    /** Cells a minion may enter: it walks into player tails but not walls or its own kind. */
+    public boolean isPassableForMinion(int r, int c) {
+        return !bits.isSolid(r, c) && !bits.hasTrail('M', r, c);
+    }
+}
@@ -0,0 +1,53 @@
+package designenemies;
+
+import java.util.Locale;
+
+/**
+ * Rollout counters for the MCTS decisions of one simulation (one stage), so
+ * the rollout rate printed at stage end is that stage's and concurrent
+ * headless runs do not mix. The engine records each decision on the game
+ * thread after the decisions of a step are in; runs can be merged with
+ * {@link #add(MctsStats)}.
+ */
+public final class MctsStats {
+
+    private long decisions;
+    private long rollouts;
+    private long decisionNs;
+
+    /** Count the decision the strategy just made, if it searched. */
+    public void record(MctsStrategy strategy) {
+        int n = strategy.getLastRollouts();
+        if (n == 0)
+            return;
+        decisions++;
+        rollouts += n;
+        decisionNs += strategy.getLastDecisionNs();
+    }
+
+    public void add(MctsStats other) {
+        decisions += other.decisions;
+        rollouts += other.rollouts;
+        decisionNs += other.decisionNs;
+    }
+
+    public long getDecisions() {
+        return decisions;
+    }
+
+    public long getRollouts() {
+        return rollouts;
+    }
+
+    /** Rollouts per second of decision time. */
+    public double getRolloutsPerSecond() {
+        return decisionNs == 0 ? 0.0 : rollouts * 1_000_000_000.0 / decisionNs;
+    }
+
+    public String summary() {
+        if (decisions == 0)
+            return "MCTS: no decisions";
+        return String.format(Locale.ROOT, "MCTS: %d decisions, %d rollouts, %.0f rollouts/s, %.3f ms/decision",
+                decisions, rollouts, getRolloutsPerSecond(), decisionNs / 1_000_000.0 / decisions);
+    }
+}
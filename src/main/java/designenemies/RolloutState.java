@@ -0,0 +1,119 @@
+package designenemies;
+
+import characters.Character;
+
+/**
+ * Compact forward model of a boss-vs-player duel for {@link MctsStrategy}.
+ * The grid is one byte per cell (0 = open, 1 = blocked); both cycles move one
+ * cell per ply, leave a trail on the cell they left and die when they enter a
+ * blocked cell or the same cell. Trails do not decay, which keeps the model
+ * cheap and slightly pessimistic over a short horizon. {@link #copyFrom} is a
+ * plain array copy, so a rollout never allocates.
+ */
+public final class RolloutState {
+
+    // Direction ordinals: NORTH, SOUTH, EAST, WEST
+    static final int[] DR = { -1, 1, 0, 0 };
+    static final int[] DC = { 0, 0, 1, -1 };
+
+    final int rows;
+    final int cols;
+    final byte[] blocked;
+    int bossR, bossC, bossDir;
+    int playerR, playerC, playerDir;
+    boolean bossAlive, playerAlive;
+
+    public RolloutState(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.blocked = new byte[rows * cols];
+    }
+
+    /** Build the root state from the live view: only open cells ('.' and 'S') can be entered. */
+    public void load(GridView grid, Enemy boss, Character player) {
+        for (int r = 0; r < rows; r++)
+            for (int c = 0; c < cols; c++)
+                blocked[r * cols + c] = (byte) (grid.isOpen(r, c) ? 0 : 1);
+        bossR = boss.getRow();
+        bossC = boss.getCol();
+        bossDir = boss.currentDirection.ordinal();
+        bossAlive = true;
+        if (player != null && player.getLives() > 0) {
+            playerR = player.getRow();
+            playerC = player.getCol();
+            playerDir = player.currentDirection.ordinal();
+            playerAlive = true;
+        } else {
+            playerR = -1;
+            playerC = -1;
+            playerDir = 0;
+            playerAlive = false;
+        }
+        block(bossR, bossC);
+        block(playerR, playerC);
+    }
+
+    public void copyFrom(RolloutState other) {
+        System.arraycopy(other.blocked, 0, blocked, 0, blocked.length);
+        bossR = other.bossR;
+        bossC = other.bossC;
+        bossDir = other.bossDir;
+        playerR = other.playerR;
+        playerC = other.playerC;
+        playerDir = other.playerDir;
+        bossAlive = other.bossAlive;
+        playerAlive = other.playerAlive;
+    }
+
+    public boolean isOver() {
+        return !bossAlive || !playerAlive;
+    }
+
+    boolean isOpen(int r, int c) {
+        return r >= 0 && r < rows && c >= 0 && c < cols && blocked[r * cols + c] == 0;
+    }
+
+    boolean bossCanMove(int dir) {
+        return dir != (bossDir ^ 1) && isOpen(bossR + DR[dir], bossC + DC[dir]);
+    }
+
+    boolean playerCanMove(int dir) {
+        return dir != (playerDir ^ 1) && isOpen(playerR + DR[dir], playerC + DC[dir]);
+    }
+
+    /** Advance one ply: both cycles move at once, then collisions are resolved. */
+    public void step(int bossMove, int playerMove) {
+        int nbR = bossR + DR[bossMove];
+        int nbC = bossC + DC[bossMove];
+        boolean bossOk = isOpen(nbR, nbC);
+        bossDir = bossMove;
+        bossR = nbR;
+        bossC = nbC;
+        if (playerAlive) {
+            int npR = playerR + DR[playerMove];
+            int npC = playerC + DC[playerMove];
+            boolean playerOk = isOpen(npR, npC);
+            playerDir = playerMove;
+            playerR = npR;
+            playerC = npC;
+            if (npR == nbR && npC == nbC) {
+                // Head-on into the same cell
+                bossOk = false;
+                playerOk = false;
+            }
+            if (playerOk)
+                block(npR, npC);
+            else
+                playerAlive = false;
+        }
+        if (bossOk)
+            block(nbR, nbC);
+        else
+            bossAlive = false;
+    }
+
+    private void block(int r, int c) {
+        if (r >= 0 && r < rows && c >= 0 && c < cols)
+            blocked[r * cols + c] = 1;
+    }
+}
@@ -0,0 +1,70 @@
+package designenemies;
+
+import characters.Direction;
+
+/**
+ * The cheap minion behaviour: keep going straight with probability
+ * 'handling' while it is safe, otherwise turn to a random safe side, and only
+ * reverse out of a dead end. Cells on a flying player disc's path are only
+ * taken when nothing else is safe. Also the fallback when a heavier strategy
+ * runs over its time budget.
+ */
+public class WanderStrategy implements EnemyStrategy {
+
+    // values() clones the array on every call
+    private static final Direction[] DIRS = Direction.values();
+
+    // Reused per call instead of building a list of valid moves
+    private final Direction[] validMoves = new Direction[4];
+
+    @Override
+    public Direction decide(Enemy self, GridView grid, long budgetNs) {
+        Direction current = self.currentDirection;
+        int r = self.getRow();
+        int c = self.getCol();
+
+        // Momentum: probability to keep moving straight equals 'handling' (higher
+        // handling => more precise)
+        if (isSafe(grid, r, c, current) && isClear(grid, r, c, current)
+                && self.getRandom().nextDouble() < self.getHandling())
+            return current;
+
+        // Random Turn, off disc paths first
+        Direction back = Enemy.getOpposite(current);
+        int count = collectMoves(grid, r, c, back, true);
+        if (count == 0)
+            count = collectMoves(grid, r, c, back, false);
+        if (count > 0)
+            return validMoves[self.getRandom().nextInt(count)];
+
+        // Dead-end: allow reverse if it's at least not a wall/obstacle
+        if (isSafe(grid, r, c, back))
+            return back;
+        return current;
+    }
+
+    private int collectMoves(GridView grid, int r, int c, Direction back, boolean clearOnly) {
+        int count = 0;
+        for (Direction d : DIRS) {
+            if (d == back)
+                continue;
+            if (isSafe(grid, r, c, d) && (!clearOnly || isClear(grid, r, c, d)))
+                validMoves[count++] = d;
+        }
+        return count;
+    }
+
+    private static boolean isClear(GridView grid, int r, int c, Direction d) {
+        AiFields fields = grid.fields();
+        return fields == null || !fields.isDangerous(r + Enemy.rowStep(d), c + Enemy.colStep(d));
+    }
+
+    private static boolean isSafe(GridView grid, int r, int c, Direction d) {
+        return grid.isPassableForMinion(r + Enemy.rowStep(d), c + Enemy.colStep(d));
+    }
+
+    @Override
+    public String getName() {
+        return "Wander";
+    }
+}
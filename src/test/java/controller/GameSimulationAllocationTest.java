@@ -0,0 +1,142 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import arena.Arena;
+import arena.ArenaTemplate;
+import arena.LevelManager;
+import arena.MapArena;
+import arena.MatchSeed;
+import characters.Character;
+import characters.Direction;
+import characters.Tron;
+
+/**
+ * The fixed-step loop must not allocate in steady state: once warmed up, a
+ * step in which nothing happens (no log line, hit, death or pickup) allocates
+ * zero bytes on the game thread.
+ *
+ * Events still allocate (log strings), so only quiet steps are counted: the
+ * observer counts callbacks and a step is quiet when none fired and no cycle
+ * was removed. A JIT deoptimisation can re-create scalar-replaced objects once,
+ * so the test measures a few windows and passes when one is clean; a real
+ * per-step allocation shows up in every window.
+ */
+public class GameSimulationAllocationTest {
+
+    private static final int SIZE = 60;
+    private static final int WARMUP_STEPS = 20_000;
+    private static final int WINDOW_STEPS = 2_000;
+    private static final int WINDOWS = 5;
+
+    // Counts every observer callback; allocates nothing itself
+    private static final class EventCounter implements GameObserver {
+        int events;
+
+        @Override
+        public void onLog(String message) {
+            events++;
+        }
+
+        @Override
+        public void onAchievement(int index, String title, String description) {
+            events++;
+        }
+
+        @Override
+        public void onPlayerHitByDisc() {
+            events++;
+        }
+
+        @Override
+        public void onDiscCooldown(long remainingNs) {
+            events++;
+        }
+
+        @Override
+        public void onPlayerDied() {
+            events++;
+        }
+
+        @Override
+        public void onStageCleared() {
+            events++;
+        }
+    }
+
+    @Test
+    public void quietStepsAllocateNothing() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue("per-thread allocation counters not available",
+                bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long thread = Thread.currentThread().getId();
+
+        EventCounter observer = new EventCounter();
+        MatchSeed seed = new MatchSeed(2);
+        GameSimulation sim = newSimulation(seed, observer);
+        ScriptedPlayer bot = new ScriptedPlayer(seed.stream(MatchSeed.PLAYER_BOT));
+        for (int i = 0; i < WARMUP_STEPS; i++) {
+            bot.drive(sim);
+            assertTrue("stage ended during warm-up at step " + i, sim.step());
+        }
+
+        long bestBytes = Long.MAX_VALUE;
+        int bestQuiet = 0;
+        for (int w = 0; w < WINDOWS && bestBytes != 0; w++) {
+            long bytes = 0;
+            int quiet = 0;
+            for (int i = 0; i < WINDOW_STEPS; i++) {
+                bot.drive(sim);
+                int events = observer.events;
+                int cycles = sim.getCycles().size();
+                long before = threads.getThreadAllocatedBytes(thread);
+                boolean running = sim.step();
+                long allocated = threads.getThreadAllocatedBytes(thread) - before;
+                if (observer.events == events && sim.getCycles().size() == cycles) {
+                    quiet++;
+                    bytes += allocated;
+                }
+                assertTrue("stage ended while measuring", running);
+            }
+            if (bytes < bestBytes) {
+                bestBytes = bytes;
+                bestQuiet = quiet;
+            }
+        }
+        assertTrue("too few quiet steps to measure: " + bestQuiet, bestQuiet > WINDOW_STEPS / 2);
+        assertEquals("bytes allocated over " + bestQuiet + " quiet steps", 0L, bestBytes);
+    }
+
+    // Chapter 5 stage 4 (bosses, discs, every strategy) on an open walled box
+    private static GameSimulation newSimulation(MatchSeed seed, GameObserver observer) {
+        char[][] layout = new char[SIZE][SIZE];
+        for (int r = 0; r < SIZE; r++)
+            for (int c = 0; c < SIZE; c++)
+                layout[r][c] = (r == 0 || c == 0 || r == SIZE - 1 || c == SIZE - 1) ? '#' : '.';
+        Arena arena = new MapArena(ArenaTemplate.fromGrid("open-" + SIZE, layout));
+
+        Character player = new Tron();
+        player.r = arena.getPlayerStartRow();
+        player.c = arena.getPlayerStartCol();
+        player.currentDirection = Direction.EAST;
+        // Enough lives that the run never ends, whatever the bosses' strength
+        player.setMaxLives(1_000_000);
+        player.prepareForNextStage();
+
+        List<Character> cycles = new ArrayList<>();
+        cycles.add(player);
+        cycles.addAll(LevelManager.loadStage(5, 4, arena, seed.stream(MatchSeed.LEVEL)));
+        return new GameSimulation(arena, cycles, observer, seed);
+    }
+}
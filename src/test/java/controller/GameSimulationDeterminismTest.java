@@ -0,0 +1,121 @@
+package controller;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import XPSystem.TronRules;
+import arena.Arena;
+import arena.LevelConfig;
+import arena.LevelManager;
+import arena.MatchSeed;
+import characters.Character;
+import characters.Direction;
+import characters.Tron;
+
+/**
+ * The same seed and inputs must give a bit-identical stage: two headless runs
+ * with one MatchSeed and ScriptedPlayer end on the same grid and cycles, with
+ * the enemy decision pool on or off, and a recorded run plays back to the same
+ * state through {@link Replay}.
+ */
+public class GameSimulationDeterminismTest {
+
+    private static final int CHAPTER = 5;
+    private static final int STAGE = 4;
+    private static final long SEED = 42L;
+    private static final int MAX_STEPS = 6_000;
+
+    @Test
+    public void sameSeedAndInputsGiveTheSameGrid() {
+        GameSimulation first = play(null, null);
+        GameSimulation second = play(null, null);
+        assertSameState(first, second);
+    }
+
+    @Test
+    public void decisionPoolDoesNotChangeTheOutcome() {
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            GameSimulation serial = play(null, null);
+            GameSimulation parallel = play(pool, null);
+            assertSameState(serial, parallel);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void recordedRunReplaysToTheSameState() throws Exception {
+        Replay[] recording = new Replay[1];
+        GameSimulation original = play(null, recording);
+        recording[0].finish(original);
+
+        Replay loaded = Replay.fromBytes(recording[0].toBytes());
+        GameSimulation replayed = loaded.createSimulation(GameObserver.NONE);
+        loaded.play(replayed, 0, null);
+
+        assertTrue("replay diverged from the recording", loaded.matches(replayed));
+        assertSameState(original, replayed);
+    }
+
+    // One run of the stage driven by the scripted player; records into recording[0] when given
+    private static GameSimulation play(ExecutorService pool, Replay[] recording) {
+        MatchSeed seed = new MatchSeed(SEED);
+        Arena arena = Arena.forChapter(CHAPTER, seed);
+
+        Character player = new Tron();
+        player.setXp(TronRules.getTotalXpForLevel(TronRules.getExpectedLevelForStage(CHAPTER, STAGE)));
+        player.r = arena.getPlayerStartRow();
+        player.c = arena.getPlayerStartCol();
+        player.currentDirection = Direction.EAST;
+        player.prepareForNextStage();
+
+        LevelConfig config = LevelManager.getLevelConfig(CHAPTER, STAGE);
+        if (recording != null)
+            recording[0] = Replay.record(seed, CHAPTER, STAGE, config, player);
+
+        List<Character> cycles = new ArrayList<>();
+        cycles.add(player);
+        cycles.addAll(LevelManager.loadStage(CHAPTER, config, arena, seed.stream(MatchSeed.LEVEL)));
+        GameSimulation sim = new GameSimulation(arena, cycles, GameObserver.NONE, seed);
+        if (pool != null)
+            sim.setDecisionPool(pool, 4);
+        if (recording != null)
+            sim.setInputListener(recording[0]);
+
+        ScriptedPlayer bot = new ScriptedPlayer(seed.stream(MatchSeed.PLAYER_BOT));
+        while (sim.getStepCount() < MAX_STEPS) {
+            bot.drive(sim);
+            if (!sim.step())
+                break;
+        }
+        return sim;
+    }
+
+    private static void assertSameState(GameSimulation expected, GameSimulation actual) {
+        assertEquals("step count", expected.getStepCount(), actual.getStepCount());
+        char[][] a = expected.getArena().getGrid();
+        char[][] b = actual.getArena().getGrid();
+        assertEquals("grid rows", a.length, b.length);
+        for (int r = 0; r < a.length; r++)
+            assertArrayEquals("grid row " + r, a[r], b[r]);
+
+        List<Character> ca = expected.getCycles();
+        List<Character> cb = actual.getCycles();
+        assertEquals("cycles left", ca.size(), cb.size());
+        for (int i = 0; i < ca.size(); i++) {
+            assertEquals("cycle " + i + " row", ca.get(i).getRow(), cb.get(i).getRow());
+            assertEquals("cycle " + i + " col", ca.get(i).getCol(), cb.get(i).getCol());
+            assertEquals("cycle " + i + " lives", ca.get(i).getLives(), cb.get(i).getLives(), 0.0);
+        }
+        assertEquals("state hash", Replay.stateHash(expected), Replay.stateHash(actual));
+    }
+}